@@ -0,0 +1,79 @@
+package com.example.valuation_service.batch;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Crash-safe file helpers for the batch job: files are either replaced atomically or appended to
+ * with whole, synced lines, and a torn trailing line left by a crash is ignored on read.
+ */
+final class BatchFiles {
+
+    private BatchFiles() {
+    }
+
+    static void writeAtomically(Path file, List<String> lines) {
+        Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+        try {
+            write(tmp, lines, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING);
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not write " + file, e);
+        }
+    }
+
+    static void append(Path file, List<String> lines) {
+        if (lines.isEmpty()) {
+            return;
+        }
+        try {
+            write(file, lines, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not append to " + file, e);
+        }
+    }
+
+    static List<String> readCompleteLines(Path file) {
+        if (!Files.exists(file)) {
+            return new ArrayList<>();
+        }
+        try {
+            String content = Files.readString(file, StandardCharsets.UTF_8);
+            int end = content.lastIndexOf('\n');
+            if (end < 0) {
+                return new ArrayList<>();
+            }
+            return new ArrayList<>(Arrays.asList(content.substring(0, end).split("\n", -1)));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read " + file, e);
+        }
+    }
+
+    private static void write(Path file, List<String> lines, StandardOpenOption... options) throws IOException {
+        StringBuilder content = new StringBuilder();
+        lines.forEach(line -> content.append(line).append('\n'));
+        try (FileChannel channel = FileChannel.open(file, withWrite(options))) {
+            ByteBuffer buffer = ByteBuffer.wrap(content.toString().getBytes(StandardCharsets.UTF_8));
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(true);
+        }
+    }
+
+    private static StandardOpenOption[] withWrite(StandardOpenOption... options) {
+        StandardOpenOption[] result = Arrays.copyOf(options, options.length + 1);
+        result[options.length] = StandardOpenOption.WRITE;
+        return result;
+    }
+}
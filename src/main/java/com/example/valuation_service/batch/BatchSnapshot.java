@@ -0,0 +1,142 @@
+package com.example.valuation_service.batch;
+
+import com.example.valuation_service.model.*;
+
+import java.net.URLDecoder;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * The positions, eligibility, prices and FX rates a batch run values against, captured once at the start
+ * of the run and kept in the work directory so a resumed run values against exactly the same data.
+ * <p>
+ * Positions and eligibility are stored per partition, prices and FX rates once for the whole run. IDs are
+ * URL-encoded so they can hold the separators used by the files.
+ */
+class BatchSnapshot {
+
+    private static final String FX_FILE = "fx-rates.csv";
+    private static final String PRICE_FILE = "prices.csv";
+
+    private final Path workDirectory;
+    private Map<String, Price> prices;
+    private List<FXRate> fxRates;
+
+    BatchSnapshot(Path workDirectory) {
+        this.workDirectory = workDirectory;
+    }
+
+    void writePositions(int partition, List<AccountPosition> accountPositions) {
+        List<String> lines = new ArrayList<>();
+        for (AccountPosition accountPosition : accountPositions) {
+            String accountId = encode(accountPosition.getAccountId());
+            List<Position> positions = Optional.ofNullable(accountPosition.getPosition())
+                    .orElse(Collections.emptyList());
+            if (positions.isEmpty()) {
+                lines.add(accountId + ",,");
+            }
+            positions.forEach(position -> lines.add(accountId + "," + encode(position.getAssetId()) + ","
+                    + position.getQuantity()));
+        }
+        BatchFiles.writeAtomically(partitionFile("positions", partition), lines);
+    }
+
+    List<AccountPosition> readPositions(int partition) {
+        Map<String, List<Position>> positions = new LinkedHashMap<>();
+        for (String line : BatchFiles.readCompleteLines(partitionFile("positions", partition))) {
+            String[] fields = line.split(",", -1);
+            List<Position> accountPositions = positions.computeIfAbsent(decode(fields[0]), id -> new ArrayList<>());
+            if (!fields[1].isEmpty()) {
+                accountPositions.add(Position.builder()
+                        .assetId(decode(fields[1]))
+                        .quantity(Integer.parseInt(fields[2]))
+                        .build());
+            }
+        }
+        List<AccountPosition> result = new ArrayList<>();
+        positions.forEach((accountId, accountPositions) ->
+                result.add(new AccountPosition(accountId, accountPositions)));
+        return result;
+    }
+
+    void writeEligibility(int partition, List<Eligibility> eligibilityList) {
+        List<String> lines = new ArrayList<>();
+        eligibilityList.forEach(eligibility -> lines.add(eligibility.isEligible() + "," + eligibility.getDiscount()
+                + "," + encodeAll(eligibility.getAccountIDs()) + "," + encodeAll(eligibility.getAssetIDs())));
+        BatchFiles.writeAtomically(partitionFile("eligibility", partition), lines);
+    }
+
+    List<Eligibility> readEligibility(int partition) {
+        List<Eligibility> eligibilityList = new ArrayList<>();
+        for (String line : BatchFiles.readCompleteLines(partitionFile("eligibility", partition))) {
+            String[] fields = line.split(",", -1);
+            eligibilityList.add(new Eligibility(Boolean.parseBoolean(fields[0]), decodeAll(fields[3]),
+                    decodeAll(fields[2]), Double.parseDouble(fields[1])));
+        }
+        return eligibilityList;
+    }
+
+    void writePrices(List<Price> priceList) {
+        List<String> lines = new ArrayList<>();
+        priceList.forEach(price -> lines.add(encode(price.getAssetId()) + "," + price.getPrice() + ","
+                + encode(Optional.ofNullable(price.getCurrency()).orElse(""))));
+        BatchFiles.writeAtomically(workDirectory.resolve(PRICE_FILE), lines);
+    }
+
+    synchronized Map<String, Price> readPrices() {
+        if (prices == null) {
+            prices = new HashMap<>();
+            for (String line : BatchFiles.readCompleteLines(workDirectory.resolve(PRICE_FILE))) {
+                String[] fields = line.split(",", -1);
+                String assetId = decode(fields[0]);
+                prices.put(assetId, new Price(assetId, Double.parseDouble(fields[1]), decode(fields[2])));
+            }
+        }
+        return prices;
+    }
+
+    void writeFXRates(List<FXRate> fxRateList) {
+        List<String> lines = new ArrayList<>();
+        fxRateList.forEach(fxRate -> lines.add(encode(fxRate.getCurrency()) + "," + fxRate.getMultiplier()));
+        BatchFiles.writeAtomically(workDirectory.resolve(FX_FILE), lines);
+    }
+
+    synchronized List<FXRate> readFXRates() {
+        if (fxRates == null) {
+            fxRates = new ArrayList<>();
+            for (String line : BatchFiles.readCompleteLines(workDirectory.resolve(FX_FILE))) {
+                String[] fields = line.split(",", -1);
+                fxRates.add(new FXRate(decode(fields[0]), Double.parseDouble(fields[1])));
+            }
+        }
+        return fxRates;
+    }
+
+    private Path partitionFile(String kind, int partition) {
+        return workDirectory.resolve(String.format("%s-%06d.csv", kind, partition));
+    }
+
+    private static String encodeAll(List<String> values) {
+        return Optional.ofNullable(values).orElse(Collections.emptyList()).stream()
+                .map(BatchSnapshot::encode)
+                .collect(Collectors.joining(";"));
+    }
+
+    private static List<String> decodeAll(String field) {
+        if (field.isEmpty()) {
+            return new ArrayList<>();
+        }
+        return Arrays.stream(field.split(";", -1)).map(BatchSnapshot::decode).collect(Collectors.toList());
+    }
+
+    private static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+
+    private static String decode(String value) {
+        return URLDecoder.decode(value, StandardCharsets.UTF_8);
+    }
+}
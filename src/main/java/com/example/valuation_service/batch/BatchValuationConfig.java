@@ -0,0 +1,25 @@
+package com.example.valuation_service.batch;
+
+import lombok.Builder;
+import lombok.Getter;
+
+import java.nio.file.Path;
+
+@Getter
+@Builder
+public class BatchValuationConfig {
+    private final String currencyCode;
+    /**
+     * Final output file, written once all partitions are complete. Must be outside the work directory.
+     */
+    private final Path outputFile;
+    /**
+     * Directory holding the checkpoint, the snapshot the run values against and completed partition files.
+     * Kept across crashes so the next run resumes; the job's files are removed after a successful run.
+     */
+    private final Path workDirectory;
+    @Builder.Default
+    private final int partitionSize = 1000;
+    @Builder.Default
+    private final int parallelism = 4;
+}
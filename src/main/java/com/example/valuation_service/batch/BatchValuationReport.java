@@ -0,0 +1,39 @@
+package com.example.valuation_service.batch;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.Duration;
+
+@Getter
+@AllArgsConstructor
+public class BatchValuationReport {
+    private final int totalAccounts;
+    private final int totalPartitions;
+    /**
+     * Partitions already completed by an earlier, interrupted run and skipped by this one.
+     */
+    private final int resumedPartitions;
+    private final int valuedAccounts;
+    private final int partitionSize;
+    private final int parallelism;
+    private final Duration elapsed;
+
+    /**
+     * Accounts valued by this run per second of wall-clock time.
+     *
+     * @return Throughput in accounts per second
+     */
+    public double getAccountsPerSecond() {
+        long millis = Math.max(elapsed.toMillis(), 1);
+        return valuedAccounts * 1000.0 / millis;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Valued %d of %d accounts in %d partitions (%d resumed) with partition size %d "
+                        + "and parallelism %d in %d ms: %.1f accounts/s",
+                valuedAccounts, totalAccounts, totalPartitions, resumedPartitions, partitionSize, parallelism,
+                elapsed.toMillis(), getAccountsPerSecond());
+    }
+}
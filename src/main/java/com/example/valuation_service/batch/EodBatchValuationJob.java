@@ -0,0 +1,333 @@
+package com.example.valuation_service.batch;
+
+import com.example.valuation_service.exception.FXRateNotFoundException;
+import com.example.valuation_service.model.*;
+import com.example.valuation_service.service.*;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.function.IntConsumer;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * End-of-day job valuing the whole book in partitions, resumable after a crash.
+ * <p>
+ * Accounts are sorted and cut into fixed-size partitions. A run first captures a {@link BatchSnapshot}: each
+ * partition's positions and eligibility, then the prices of every asset held anywhere in the book and the FX
+ * rates, all read before any account is valued. Every partition is then valued from the snapshot alone, so
+ * the whole run, including a resume the next morning, reflects the data as captured. Each snapshot step and
+ * each valued partition is recorded in the checkpoint once its files are written, so a restarted run picks
+ * up the snapshot or the valuation where it stopped instead of starting over. Once every partition is done the
+ * partition files are merged into the output file and the job's files are removed from the work directory.
+ */
+@Slf4j
+public class EodBatchValuationJob {
+
+    static final String CHECKPOINT_FILE = "checkpoint";
+    private static final String SNAPSHOT_ENTRY = "snapshot ";
+    private static final String MARKET_DATA_ENTRY = "market-data";
+    private static final String VALUED_ENTRY = "valued ";
+    /**
+     * Every file the job writes to the work directory: the checkpoint, partition output, the snapshot and the
+     * temporary files they are atomically written through. Nothing else there is touched.
+     */
+    private static final Pattern JOB_FILE = Pattern.compile(
+            "(checkpoint|prices\\.csv|fx-rates\\.csv|(part|positions|eligibility)-\\d{6}\\.csv)(\\.tmp)?");
+    private static final String OUTPUT_HEADER = "accountId,collateralValue,marketValue";
+
+    private final AccountService accountService;
+    private final PositionService positionService;
+    private final EligibilityService eligibilityService;
+    private final PriceService priceService;
+    private final FXService fxService;
+    private final BatchValuationConfig config;
+
+    public EodBatchValuationJob(AccountService accountService, PositionService positionService,
+                                EligibilityService eligibilityService, PriceService priceService,
+                                FXService fxService, BatchValuationConfig config) {
+        if (config.getPartitionSize() <= 0 || config.getParallelism() <= 0) {
+            throw new IllegalArgumentException("Partition size and parallelism must be positive.");
+        }
+        if (config.getOutputFile().toAbsolutePath().normalize()
+                .startsWith(config.getWorkDirectory().toAbsolutePath().normalize())) {
+            throw new IllegalArgumentException("Output file " + config.getOutputFile()
+                    + " must not be inside the work directory " + config.getWorkDirectory() + ".");
+        }
+        this.accountService = accountService;
+        this.positionService = positionService;
+        this.eligibilityService = eligibilityService;
+        this.priceService = priceService;
+        this.fxService = fxService;
+        this.config = config;
+    }
+
+    /**
+     * Values every account in the book, resuming from the checkpoint left by an interrupted run.
+     *
+     * @return Summary of the run
+     */
+    public BatchValuationReport run() {
+        long start = System.nanoTime();
+        createWorkDirectory();
+
+        List<String> accountIds = new ArrayList<>(new TreeSet<>(accountService.getAccountIds()));
+        List<List<String>> partitions = partition(accountIds);
+        BatchSnapshot snapshot = new BatchSnapshot(config.getWorkDirectory());
+        Checkpoint checkpoint = readCheckpoint(accountIds);
+        takeSnapshot(partitions, snapshot, checkpoint);
+
+        List<Integer> pending = new ArrayList<>();
+        int valuedAccounts = 0;
+        for (int i = 0; i < partitions.size(); i++) {
+            if (!checkpoint.valued.contains(i)) {
+                pending.add(i);
+                valuedAccounts += partitions.get(i).size();
+            }
+        }
+        runInParallel(pending, index -> valuePartition(snapshot, index));
+        mergeOutput(partitions.size());
+        clearWorkDirectory();
+
+        BatchValuationReport report = new BatchValuationReport(accountIds.size(), partitions.size(),
+                partitions.size() - pending.size(), valuedAccounts, config.getPartitionSize(),
+                config.getParallelism(), Duration.ofNanos(System.nanoTime() - start));
+        log.info("EOD batch valuation complete: {}", report);
+        return report;
+    }
+
+    /**
+     * Values one partition against the snapshot only; no upstream service is called.
+     */
+    void valuePartition(BatchSnapshot snapshot, int index) {
+        List<AccountPosition> positions = snapshot.readPositions(index);
+        List<Eligibility> eligibilityList = snapshot.readEligibility(index);
+        Map<String, Price> prices = snapshot.readPrices();
+        ValuationService valuationService = new ValuationService(
+                ids -> positions,
+                (ids, assetIds) -> eligibilityList,
+                assetIds -> assetIds.stream().map(prices::get).filter(Objects::nonNull).collect(Collectors.toList()),
+                snapshot::readFXRates);
+        List<String> accountIds = positions.stream().map(AccountPosition::getAccountId).collect(Collectors.toList());
+        List<String> lines = new ArrayList<>(positions.size());
+        valuationService.calculateValuation(accountIds, config.getCurrencyCode(),
+                (accountId, collateralValue, marketValue) -> lines.add(accountId + ","
+                        + formatValue(collateralValue) + "," + formatValue(marketValue)));
+
+        BatchFiles.writeAtomically(partitionFile(index), lines);
+        recordProgress(VALUED_ENTRY + index);
+        log.debug("Completed partition {} with {} accounts", index, lines.size());
+    }
+
+    /**
+     * Captures the positions, eligibility, prices and FX rates for the whole run before anything is valued,
+     * skipping the steps the checkpoint records as already captured.
+     */
+    private void takeSnapshot(List<List<String>> partitions, BatchSnapshot snapshot, Checkpoint checkpoint) {
+        List<Integer> pending = Stream.iterate(0, i -> i + 1).limit(partitions.size())
+                .filter(index -> !checkpoint.snapshotted.contains(index))
+                .collect(Collectors.toList());
+        runInParallel(pending, index -> snapshotPartition(partitions.get(index), index, snapshot));
+        if (checkpoint.marketDataTaken) {
+            return;
+        }
+
+        List<FXRate> fxRates = fxService.getFXRates();
+        if (fxRates == null) {
+            throw new FXRateNotFoundException("FX rates could not be retrieved from FX service.");
+        }
+        snapshot.writeFXRates(fxRates);
+
+        Set<String> assetIds = new TreeSet<>();
+        for (int index = 0; index < partitions.size(); index++) {
+            snapshot.readPositions(index).forEach(accountPosition -> accountPosition.getPosition()
+                    .forEach(position -> assetIds.add(position.getAssetId())));
+        }
+        List<String> sortedAssetIds = new ArrayList<>(assetIds);
+        List<Price> prices = new ArrayList<>();
+        for (int from = 0; from < sortedAssetIds.size(); from += config.getPartitionSize()) {
+            List<String> chunk = sortedAssetIds.subList(from,
+                    Math.min(from + config.getPartitionSize(), sortedAssetIds.size()));
+            prices.addAll(Optional.ofNullable(priceService.getPrices(chunk)).orElse(Collections.emptyList()));
+        }
+        snapshot.writePrices(prices);
+        recordProgress(MARKET_DATA_ENTRY);
+    }
+
+    private void snapshotPartition(List<String> accountIds, int index, BatchSnapshot snapshot) {
+        List<AccountPosition> positions = Optional.ofNullable(positionService.getPositions(accountIds))
+                .orElse(Collections.emptyList());
+        List<String> assetIds = positions.stream()
+                .flatMap(accountPosition -> Optional.ofNullable(accountPosition.getPosition())
+                        .orElse(Collections.emptyList()).stream())
+                .map(Position::getAssetId)
+                .distinct()
+                .collect(Collectors.toList());
+        List<Eligibility> eligibilityList = positions.isEmpty()
+                ? Collections.emptyList()
+                : Optional.ofNullable(eligibilityService.getEligibility(accountIds, assetIds))
+                .orElse(Collections.emptyList());
+
+        snapshot.writePositions(index, positions);
+        snapshot.writeEligibility(index, eligibilityList);
+        recordProgress(SNAPSHOT_ENTRY + index);
+    }
+
+    private void runInParallel(List<Integer> indexes, IntConsumer task) {
+        ExecutorService executor = Executors.newFixedThreadPool(config.getParallelism());
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int index : indexes) {
+                futures.add(executor.submit(() -> task.accept(index)));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException("Batch valuation partition failed.", e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Batch valuation interrupted.", e);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Formats the value as a plain decimal with two decimal points; large values would otherwise be
+     * written in scientific notation.
+     *
+     * @param value The value to be formatted
+     * @return The value formatted to two decimal points
+     */
+    private static String formatValue(double value) {
+        return BigDecimal.valueOf(value).setScale(2, RoundingMode.HALF_UP).toPlainString();
+    }
+
+    private List<List<String>> partition(List<String> accountIds) {
+        List<List<String>> partitions = new ArrayList<>();
+        for (int from = 0; from < accountIds.size(); from += config.getPartitionSize()) {
+            partitions.add(accountIds.subList(from, Math.min(from + config.getPartitionSize(), accountIds.size())));
+        }
+        return partitions;
+    }
+
+    /**
+     * Reads the progress of an earlier run, or starts a new checkpoint. Its header identifies the book and
+     * partitioning it was written for, so a resume never mixes partition layouts; each further line records
+     * a snapshotted partition, the captured market data or a valued partition.
+     */
+    private Checkpoint readCheckpoint(List<String> accountIds) {
+        String header = config.getCurrencyCode() + "," + config.getPartitionSize() + "," + accountIds.size()
+                + "," + accountIds.hashCode();
+        Checkpoint checkpoint = new Checkpoint();
+        List<String> lines = BatchFiles.readCompleteLines(checkpointFile());
+        if (lines.isEmpty()) {
+            // Fresh run: drop anything left behind by an uncleared run.
+            clearWorkDirectory();
+            BatchFiles.writeAtomically(checkpointFile(), List.of(header));
+            return checkpoint;
+        }
+        if (!lines.get(0).equals(header)) {
+            throw new IllegalStateException("Checkpoint in " + config.getWorkDirectory()
+                    + " was written for a different book, currency or partition size; clear it to start over.");
+        }
+        for (String line : lines.subList(1, lines.size())) {
+            if (line.startsWith(SNAPSHOT_ENTRY)) {
+                checkpoint.snapshotted.add(Integer.parseInt(line.substring(SNAPSHOT_ENTRY.length())));
+            } else if (line.equals(MARKET_DATA_ENTRY)) {
+                checkpoint.marketDataTaken = true;
+            } else if (line.startsWith(VALUED_ENTRY)) {
+                checkpoint.valued.add(Integer.parseInt(line.substring(VALUED_ENTRY.length())));
+            } else {
+                throw new IllegalStateException("Unrecognised checkpoint entry '" + line + "' in "
+                        + config.getWorkDirectory() + "; clear it to start over.");
+            }
+        }
+        return checkpoint;
+    }
+
+    private synchronized void recordProgress(String entry) {
+        BatchFiles.append(checkpointFile(), List.of(entry));
+    }
+
+    private void mergeOutput(int partitionCount) {
+        Path outputFile = config.getOutputFile();
+        Path tmp = outputFile.resolveSibling(outputFile.getFileName() + ".tmp");
+        try {
+            try (OutputStream out = Files.newOutputStream(tmp)) {
+                out.write((OUTPUT_HEADER + "\n").getBytes(StandardCharsets.UTF_8));
+                for (int i = 0; i < partitionCount; i++) {
+                    Files.copy(partitionFile(i), out);
+                }
+            }
+            Files.move(tmp, outputFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not write batch output " + outputFile, e);
+        }
+    }
+
+    private void createWorkDirectory() {
+        try {
+            Files.createDirectories(config.getWorkDirectory());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not create work directory " + config.getWorkDirectory(), e);
+        }
+    }
+
+    /**
+     * Removes the files written by the job, leaving anything else in the work directory alone. The checkpoint
+     * goes first, so a crash while clearing never leaves a checkpoint pointing at snapshot or partition files
+     * that are gone.
+     */
+    private void clearWorkDirectory() {
+        try {
+            Files.deleteIfExists(checkpointFile());
+            try (Stream<Path> files = Files.list(config.getWorkDirectory())) {
+                for (Path file : files.filter(Files::isRegularFile)
+                        .filter(file -> JOB_FILE.matcher(file.getFileName().toString()).matches())
+                        .collect(Collectors.toList())) {
+                    Files.delete(file);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not clear work directory " + config.getWorkDirectory(), e);
+        }
+    }
+
+    private Path checkpointFile() {
+        return workFile(CHECKPOINT_FILE);
+    }
+
+    private Path partitionFile(int index) {
+        return workFile(String.format("part-%06d.csv", index));
+    }
+
+    private Path workFile(String fileName) {
+        return config.getWorkDirectory().resolve(fileName);
+    }
+
+    /**
+     * Progress recorded in the checkpoint by earlier attempts at this run.
+     */
+    private static final class Checkpoint {
+        private final Set<Integer> snapshotted = new HashSet<>();
+        private boolean marketDataTaken;
+        private final Set<Integer> valued = new HashSet<>();
+    }
+}
@@ -0,0 +1,120 @@
+package com.example.valuation_service.cluster;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+
+/**
+ * Consistent hash ring mapping account IDs to valuation nodes.
+ * <p>
+ * Each node is placed on the ring at a number of virtual points so that accounts are spread evenly,
+ * and adding or removing a node only moves the accounts adjacent to its points. Membership changes
+ * swap in a new immutable ring, so lookups never block and always see a consistent view.
+ */
+public class ConsistentHashRing {
+
+    public static final int DEFAULT_VIRTUAL_NODES = 160;
+
+    // MessageDigest is not thread-safe and costly to look up, so each thread reuses its own.
+    private static final ThreadLocal<MessageDigest> MD5 = ThreadLocal.withInitial(ConsistentHashRing::md5);
+
+    private final int virtualNodes;
+    private volatile NavigableMap<Long, ValuationNode> ring = Collections.emptyNavigableMap();
+
+    public ConsistentHashRing() {
+        this(DEFAULT_VIRTUAL_NODES);
+    }
+
+    public ConsistentHashRing(int virtualNodes) {
+        if (virtualNodes <= 0) {
+            throw new IllegalArgumentException("Virtual nodes must be positive: " + virtualNodes);
+        }
+        this.virtualNodes = virtualNodes;
+    }
+
+    /**
+     * Adds a node to the ring, taking over the accounts that now hash closest to it.
+     *
+     * @param node The node to add
+     */
+    public synchronized void addNode(ValuationNode node) {
+        if (getNodes().stream().anyMatch(existing -> existing.getNodeId().equals(node.getNodeId()))) {
+            throw new IllegalArgumentException("Node '" + node.getNodeId() + "' is already part of the ring.");
+        }
+        NavigableMap<Long, ValuationNode> updated = new TreeMap<>(ring);
+        for (int i = 0; i < virtualNodes; i++) {
+            updated.put(hash(node.getNodeId() + "#" + i), node);
+        }
+        ring = Collections.unmodifiableNavigableMap(updated);
+    }
+
+    /**
+     * Removes a node from the ring; its accounts move to the next node on the ring.
+     *
+     * @param nodeId ID of the node to remove
+     * @return Whether the node was part of the ring
+     */
+    public synchronized boolean removeNode(String nodeId) {
+        NavigableMap<Long, ValuationNode> updated = new TreeMap<>(ring);
+        if (!updated.values().removeIf(node -> node.getNodeId().equals(nodeId))) {
+            return false;
+        }
+        ring = Collections.unmodifiableNavigableMap(updated);
+        return true;
+    }
+
+    /**
+     * Returns the node owning the given account.
+     *
+     * @param accountId The account ID
+     * @return The owning node
+     */
+    public ValuationNode getNode(String accountId) {
+        return getNode(ring, accountId);
+    }
+
+    /**
+     * Splits the accounts by owning node, keeping the request order within each shard.
+     *
+     * @param accountIds List of account IDs
+     * @return Account IDs grouped by owning node
+     */
+    public Map<ValuationNode, List<String>> partition(List<String> accountIds) {
+        NavigableMap<Long, ValuationNode> snapshot = ring;
+        Map<ValuationNode, List<String>> shards = new LinkedHashMap<>();
+        for (String accountId : accountIds) {
+            shards.computeIfAbsent(getNode(snapshot, accountId), node -> new ArrayList<>()).add(accountId);
+        }
+        return shards;
+    }
+
+    public Set<ValuationNode> getNodes() {
+        return new LinkedHashSet<>(ring.values());
+    }
+
+    private static ValuationNode getNode(NavigableMap<Long, ValuationNode> snapshot, String accountId) {
+        if (snapshot.isEmpty()) {
+            throw new IllegalStateException("No valuation nodes available in the ring.");
+        }
+        Map.Entry<Long, ValuationNode> entry = snapshot.ceilingEntry(hash(accountId));
+        return entry != null ? entry.getValue() : snapshot.firstEntry().getValue();
+    }
+
+    private static long hash(String key) {
+        byte[] digest = MD5.get().digest(key.getBytes(StandardCharsets.UTF_8));
+        long hash = 0;
+        for (int i = 0; i < Long.BYTES; i++) {
+            hash = (hash << 8) | (digest[i] & 0xFF);
+        }
+        return hash;
+    }
+
+    private static MessageDigest md5() {
+        try {
+            return MessageDigest.getInstance("MD5");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("MD5 digest not available.", e);
+        }
+    }
+}
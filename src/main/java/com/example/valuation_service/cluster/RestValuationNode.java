@@ -0,0 +1,51 @@
+package com.example.valuation_service.cluster;
+
+import com.example.valuation_service.model.Account;
+import lombok.Getter;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.web.client.RestClient;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Node reached over HTTP through another valuation-service instance's {@code /valuations} endpoint,
+ * e.g. one listening on loopback.
+ */
+public class RestValuationNode implements ValuationNode {
+
+    private static final ParameterizedTypeReference<List<Account>> ACCOUNT_LIST = new ParameterizedTypeReference<>() {
+    };
+
+    @Getter
+    private final String nodeId;
+    @Getter
+    private final String baseUrl;
+    private final RestClient restClient;
+
+    /**
+     * @param connectTimeout Maximum time to establish a connection to the node
+     * @param readTimeout    Maximum time to wait for the node's response, so a hung node fails its shard
+     *                       instead of blocking the whole fan-out
+     */
+    public RestValuationNode(String nodeId, String baseUrl, Duration connectTimeout, Duration readTimeout) {
+        SimpleClientHttpRequestFactory requestFactory = new SimpleClientHttpRequestFactory();
+        requestFactory.setConnectTimeout((int) connectTimeout.toMillis());
+        requestFactory.setReadTimeout((int) readTimeout.toMillis());
+        this.nodeId = nodeId;
+        this.baseUrl = baseUrl;
+        this.restClient = RestClient.builder().baseUrl(baseUrl).requestFactory(requestFactory).build();
+    }
+
+    @Override
+    public List<Account> calculateValuation(List<String> accountIds, String currencyCode) {
+        return restClient.post()
+                .uri(uriBuilder -> uriBuilder.path("/valuations").queryParam("currency", currencyCode).build())
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(accountIds)
+                .retrieve()
+                .body(ACCOUNT_LIST);
+    }
+}
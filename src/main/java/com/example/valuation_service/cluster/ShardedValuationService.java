@@ -0,0 +1,89 @@
+package com.example.valuation_service.cluster;
+
+import com.example.valuation_service.model.Account;
+import com.example.valuation_service.service.AccountValuationConsumer;
+import lombok.AllArgsConstructor;
+
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+
+/**
+ * Coordinator for clustered mode: splits a valuation request by shard, fans the shards out to the
+ * owning nodes in parallel and merges the results back into request order.
+ */
+@AllArgsConstructor
+public class ShardedValuationService {
+
+    private final ConsistentHashRing ring;
+    private final Executor executor;
+
+    /**
+     * Calculates the valuation for a list of accounts across all nodes owning them.
+     *
+     * @param accountIds   List of account IDs
+     * @param currencyCode Target currency code
+     * @return List of Account objects in the order the accounts were requested, one per requested ID
+     */
+    public List<Account> calculateValuation(List<String> accountIds, String currencyCode) {
+        List<Account> result = new ArrayList<>(accountIds.size());
+        calculateValuation(accountIds, currencyCode,
+                (accountId, collateralValue, marketValue) -> result.add(new Account(accountId, collateralValue, marketValue)));
+        return result;
+    }
+
+    /**
+     * Calculates the valuation for a list of accounts across all nodes owning them, handing each account's
+     * values to the consumer once every shard has answered.
+     *
+     * @param accountIds   List of account IDs
+     * @param currencyCode Target currency code
+     * @param consumer     Receives the collateral and market value of each account, in request order
+     */
+    public void calculateValuation(List<String> accountIds, String currencyCode, AccountValuationConsumer consumer) {
+        if (accountIds.isEmpty()) {
+            return;
+        }
+
+        // Each distinct account is valued once; repeated IDs get a row per occurrence, as from a single node.
+        List<CompletableFuture<List<Account>>> shardResults = new ArrayList<>();
+        ring.partition(new ArrayList<>(new LinkedHashSet<>(accountIds))).forEach((node, shard) -> shardResults.add(
+                CompletableFuture.supplyAsync(() -> node.calculateValuation(shard, currencyCode), executor)));
+
+        Map<String, Account> accountsById = new HashMap<>();
+        for (CompletableFuture<List<Account>> shardResult : shardResults) {
+            join(shardResult).forEach(account -> accountsById.put(account.getAccountId(), account));
+        }
+
+        for (String accountId : accountIds) {
+            Account account = accountsById.get(accountId);
+            if (account != null) {
+                consumer.accept(account.getAccountId(), account.getCollateralValue(), account.getMarketValue());
+            }
+        }
+    }
+
+    public void addNode(ValuationNode node) {
+        ring.addNode(node);
+    }
+
+    public boolean removeNode(String nodeId) {
+        return ring.removeNode(nodeId);
+    }
+
+    public Set<ValuationNode> getNodes() {
+        return ring.getNodes();
+    }
+
+    private static List<Account> join(CompletableFuture<List<Account>> shardResult) {
+        try {
+            return Optional.ofNullable(shardResult.join()).orElse(Collections.emptyList());
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package com.example.valuation_service.cluster;
+
+import com.example.valuation_service.model.Account;
+
+import java.util.List;
+
+/**
+ * A single valuation-service instance that owns a shard of the account space.
+ */
+public interface ValuationNode {
+
+    String getNodeId();
+
+    List<Account> calculateValuation(List<String> accountIds, String currencyCode);
+}
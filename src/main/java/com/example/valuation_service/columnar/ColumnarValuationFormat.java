@@ -0,0 +1,71 @@
+package com.example.valuation_service.columnar;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+
+/**
+ * Compact binary format for bulk valuation results.
+ * <p>
+ * A stream is the magic bytes {@code VALC} and a version byte, followed by chunks and terminated by a
+ * zero row count. Each chunk is framed as {@code int rowCount, int payloadLength, payload}, so a reader can
+ * skip a chunk without decoding it. The payload holds, in order:
+ * <ul>
+ *     <li>the chunk's account ID dictionary: a varint entry count, then each ID as varint length and UTF-8 bytes</li>
+ *     <li>the account ID column: one varint dictionary index per row</li>
+ *     <li>the collateral value column and then the market value column, each as an encoding byte followed by
+ *     either one zigzag varint per row holding the value in cents ({@link #CENTS}) or one 8-byte double per
+ *     row ({@link #RAW_DOUBLE})</li>
+ * </ul>
+ * Valuations are rounded to two decimals, so the cents encoding applies to almost every chunk and is
+ * lossless; chunks with any value it cannot reproduce exactly fall back to raw doubles.
+ * A stream missing its terminator was cut short and is reported as truncated by the reader.
+ */
+public final class ColumnarValuationFormat {
+
+    public static final String MEDIA_TYPE = "application/x-valuation-columnar";
+
+    static final byte[] MAGIC = {'V', 'A', 'L', 'C'};
+    static final byte VERSION = 1;
+    static final byte RAW_DOUBLE = 0;
+    static final byte CENTS = 1;
+    /**
+     * Largest cent amount whose conversion to and from a double is exact.
+     */
+    static final double MAX_CENTS = 1L << 53;
+
+    private ColumnarValuationFormat() {
+    }
+
+    static int readVarInt(ByteBuffer buffer) throws IOException {
+        long value = readVarLong(buffer);
+        if (value < 0 || value > Integer.MAX_VALUE) {
+            throw new IOException("Corrupt columnar valuation stream: varint out of range.");
+        }
+        return (int) value;
+    }
+
+    static long readVarLong(ByteBuffer buffer) throws IOException {
+        try {
+            long value = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                byte b = buffer.get();
+                value |= (long) (b & 0x7F) << shift;
+                if (b >= 0) {
+                    return value;
+                }
+            }
+        } catch (BufferUnderflowException e) {
+            throw new IOException("Corrupt columnar valuation stream: chunk ended inside a value.", e);
+        }
+        throw new IOException("Corrupt columnar valuation stream: varint too long.");
+    }
+
+    static long zigZagDecode(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    static long zigZagEncode(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+}
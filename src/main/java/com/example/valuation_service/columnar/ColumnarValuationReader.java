@@ -0,0 +1,138 @@
+package com.example.valuation_service.columnar;
+
+import com.example.valuation_service.service.AccountValuationConsumer;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Reads a stream written by {@link ColumnarValuationWriter}, one chunk at a time.
+ */
+public class ColumnarValuationReader implements Closeable {
+
+    private final DataInputStream in;
+    private boolean headerRead;
+    private boolean finished;
+
+    public ColumnarValuationReader(InputStream in) {
+        this.in = new DataInputStream(new BufferedInputStream(in));
+    }
+
+    /**
+     * Reads the next chunk.
+     *
+     * @return The next chunk, or null once the end-of-stream marker has been read
+     * @throws EOFException if the stream ends before its end-of-stream marker
+     */
+    public ValuationChunk readChunk() throws IOException {
+        if (finished) {
+            return null;
+        }
+        try {
+            readHeader();
+            int rows = in.readInt();
+            int payloadLength = in.readInt();
+            if (rows == 0) {
+                finished = true;
+                return null;
+            }
+            if (rows < 0 || payloadLength < 0) {
+                throw new IOException("Corrupt columnar valuation stream: invalid chunk size.");
+            }
+            // The declared length is not trusted for allocation: the payload buffer grows only as bytes arrive.
+            byte[] payload = in.readNBytes(payloadLength);
+            if (payload.length < payloadLength) {
+                throw new EOFException();
+            }
+            // Every row takes at least one byte in each of its three columns, so the row count is bounded
+            // by bytes actually received before any column is allocated.
+            if (rows > payloadLength / 3) {
+                throw new IOException("Corrupt columnar valuation stream: more rows than the chunk can hold.");
+            }
+            return decode(rows, ByteBuffer.wrap(payload));
+        } catch (EOFException e) {
+            throw new EOFException("Columnar valuation stream is truncated.");
+        }
+    }
+
+    /**
+     * Reads every remaining row, handing each to the consumer.
+     *
+     * @param consumer Receives each account's collateral and market value in stream order
+     */
+    public void readAll(AccountValuationConsumer consumer) throws IOException {
+        for (ValuationChunk chunk = readChunk(); chunk != null; chunk = readChunk()) {
+            chunk.forEach(consumer);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+
+    private void readHeader() throws IOException {
+        if (headerRead) {
+            return;
+        }
+        byte[] magic = new byte[ColumnarValuationFormat.MAGIC.length];
+        in.readFully(magic);
+        if (!Arrays.equals(magic, ColumnarValuationFormat.MAGIC)) {
+            throw new IOException("Not a columnar valuation stream.");
+        }
+        byte version = in.readByte();
+        if (version != ColumnarValuationFormat.VERSION) {
+            throw new IOException("Unsupported columnar valuation stream version: " + version);
+        }
+        headerRead = true;
+    }
+
+    private static ValuationChunk decode(int rows, ByteBuffer payload) throws IOException {
+        int dictionarySize = ColumnarValuationFormat.readVarInt(payload);
+        // Every entry takes at least its one-byte length prefix.
+        if (dictionarySize > payload.remaining()) {
+            throw new IOException("Corrupt columnar valuation stream: dictionary overruns chunk.");
+        }
+        String[] dictionary = new String[dictionarySize];
+        for (int i = 0; i < dictionary.length; i++) {
+            int length = ColumnarValuationFormat.readVarInt(payload);
+            if (length > payload.remaining()) {
+                throw new IOException("Corrupt columnar valuation stream: account ID overruns chunk.");
+            }
+            dictionary[i] = new String(payload.array(), payload.position(), length, StandardCharsets.UTF_8);
+            payload.position(payload.position() + length);
+        }
+
+        int[] accountIndexes = new int[rows];
+        for (int row = 0; row < rows; row++) {
+            accountIndexes[row] = ColumnarValuationFormat.readVarInt(payload);
+            if (accountIndexes[row] >= dictionary.length) {
+                throw new IOException("Corrupt columnar valuation stream: account index out of range.");
+            }
+        }
+        double[] collateralValues = readValues(rows, payload);
+        double[] marketValues = readValues(rows, payload);
+        return new ValuationChunk(dictionary, accountIndexes, collateralValues, marketValues);
+    }
+
+    private static double[] readValues(int rows, ByteBuffer payload) throws IOException {
+        double[] values = new double[rows];
+        byte encoding = payload.hasRemaining() ? payload.get() : -1;
+        if (encoding == ColumnarValuationFormat.CENTS) {
+            for (int row = 0; row < rows; row++) {
+                values[row] = ColumnarValuationFormat.zigZagDecode(ColumnarValuationFormat.readVarLong(payload)) / 100.0;
+            }
+        } else if (encoding == ColumnarValuationFormat.RAW_DOUBLE) {
+            if (payload.remaining() < (long) rows * Double.BYTES) {
+                throw new IOException("Corrupt columnar valuation stream: value column overruns chunk.");
+            }
+            payload.asDoubleBuffer().get(values);
+            payload.position(payload.position() + rows * Double.BYTES);
+        } else {
+            throw new IOException("Corrupt columnar valuation stream: unknown value encoding " + encoding);
+        }
+        return values;
+    }
+}
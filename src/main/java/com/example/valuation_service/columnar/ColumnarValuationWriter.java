@@ -0,0 +1,170 @@
+package com.example.valuation_service.columnar;
+
+import com.example.valuation_service.service.AccountValuationConsumer;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes valuation results in the {@link ColumnarValuationFormat} as they are produced.
+ * <p>
+ * Pass the writer to {@code ValuationService.calculateValuation} as the consumer: rows are buffered in
+ * primitive columns and written out a chunk at a time, so no Account objects are created. Call
+ * {@link #finish()} once all rows are written; a stream closed without it is seen as truncated by readers,
+ * which is what a failed valuation should look like.
+ */
+public class ColumnarValuationWriter implements AccountValuationConsumer, Closeable {
+
+    public static final int DEFAULT_CHUNK_SIZE = 65536;
+
+    private final OutputStream out;
+    private final int chunkSize;
+    private final Map<String, Integer> dictionary = new HashMap<>();
+    private final List<String> dictionaryEntries = new ArrayList<>();
+    private final int[] accountIndexes;
+    private final double[] collateralValues;
+    private final double[] marketValues;
+    private final FrameBuffer payload = new FrameBuffer();
+    private final byte[] frameHeader = new byte[2 * Integer.BYTES];
+    private int rows;
+    private boolean headerWritten;
+    private boolean finished;
+
+    public ColumnarValuationWriter(OutputStream out) {
+        this(out, DEFAULT_CHUNK_SIZE);
+    }
+
+    public ColumnarValuationWriter(OutputStream out, int chunkSize) {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("Chunk size must be positive: " + chunkSize);
+        }
+        this.out = out;
+        this.chunkSize = chunkSize;
+        this.accountIndexes = new int[chunkSize];
+        this.collateralValues = new double[chunkSize];
+        this.marketValues = new double[chunkSize];
+    }
+
+    @Override
+    public void accept(String accountId, double collateralValue, double marketValue) {
+        if (finished) {
+            throw new IllegalStateException("Columnar valuation stream is already finished.");
+        }
+        Integer index = dictionary.get(accountId);
+        if (index == null) {
+            index = dictionaryEntries.size();
+            dictionary.put(accountId, index);
+            dictionaryEntries.add(accountId);
+        }
+        accountIndexes[rows] = index;
+        collateralValues[rows] = collateralValue;
+        marketValues[rows] = marketValue;
+        if (++rows == chunkSize) {
+            writeChunk();
+        }
+    }
+
+    /**
+     * Writes any buffered rows and the end-of-stream marker, and flushes the underlying stream.
+     */
+    public void finish() throws IOException {
+        if (finished) {
+            return;
+        }
+        try {
+            writeChunk();
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        writeHeader();
+        writeFrameHeader(0, 0);
+        out.flush();
+        finished = true;
+    }
+
+    @Override
+    public void close() throws IOException {
+        out.close();
+    }
+
+    private void writeChunk() {
+        if (rows == 0) {
+            return;
+        }
+        payload.reset();
+        payload.writeVarLong(dictionaryEntries.size());
+        for (String accountId : dictionaryEntries) {
+            payload.writeString(accountId);
+        }
+        for (int row = 0; row < rows; row++) {
+            payload.writeVarLong(accountIndexes[row]);
+        }
+        writeValues(collateralValues);
+        writeValues(marketValues);
+
+        try {
+            writeHeader();
+            writeFrameHeader(rows, payload.length());
+            payload.writeTo(out);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not write columnar valuation chunk.", e);
+        }
+        rows = 0;
+        dictionary.clear();
+        dictionaryEntries.clear();
+    }
+
+    private void writeValues(double[] values) {
+        if (fitsInCents(values)) {
+            payload.writeByte(ColumnarValuationFormat.CENTS);
+            for (int row = 0; row < rows; row++) {
+                payload.writeVarLong(ColumnarValuationFormat.zigZagEncode(Math.round(values[row] * 100)));
+            }
+        } else {
+            payload.writeByte(ColumnarValuationFormat.RAW_DOUBLE);
+            for (int row = 0; row < rows; row++) {
+                payload.writeDouble(values[row]);
+            }
+        }
+    }
+
+    /**
+     * Checks that every value converts to whole cents and back to exactly the same double.
+     */
+    private boolean fitsInCents(double[] values) {
+        for (int row = 0; row < rows; row++) {
+            double cents = values[row] * 100;
+            if (!(Math.abs(cents) < ColumnarValuationFormat.MAX_CENTS)
+                    || Double.compare(Math.round(cents) / 100.0, values[row]) != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void writeHeader() throws IOException {
+        if (!headerWritten) {
+            out.write(ColumnarValuationFormat.MAGIC);
+            out.write(ColumnarValuationFormat.VERSION);
+            headerWritten = true;
+        }
+    }
+
+    private void writeFrameHeader(int rowCount, int payloadLength) throws IOException {
+        putInt(0, rowCount);
+        putInt(Integer.BYTES, payloadLength);
+        out.write(frameHeader);
+    }
+
+    private void putInt(int offset, int value) {
+        for (int i = 0; i < Integer.BYTES; i++) {
+            frameHeader[offset + i] = (byte) (value >>> (24 - 8 * i));
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.example.valuation_service.columnar;
+
+import com.example.valuation_service.service.AccountValuationConsumer;
+
+/**
+ * One decoded chunk of a columnar valuation stream, accessed by row without creating Account objects.
+ */
+public class ValuationChunk {
+
+    private final String[] dictionary;
+    private final int[] accountIndexes;
+    private final double[] collateralValues;
+    private final double[] marketValues;
+
+    ValuationChunk(String[] dictionary, int[] accountIndexes, double[] collateralValues, double[] marketValues) {
+        this.dictionary = dictionary;
+        this.accountIndexes = accountIndexes;
+        this.collateralValues = collateralValues;
+        this.marketValues = marketValues;
+    }
+
+    public int size() {
+        return accountIndexes.length;
+    }
+
+    public String getAccountId(int row) {
+        return dictionary[accountIndexes[row]];
+    }
+
+    public double getCollateralValue(int row) {
+        return collateralValues[row];
+    }
+
+    public double getMarketValue(int row) {
+        return marketValues[row];
+    }
+
+    public void forEach(AccountValuationConsumer consumer) {
+        for (int row = 0; row < size(); row++) {
+            consumer.accept(getAccountId(row), collateralValues[row], marketValues[row]);
+        }
+    }
+}
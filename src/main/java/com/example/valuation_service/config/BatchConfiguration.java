@@ -0,0 +1,45 @@
+package com.example.valuation_service.config;
+
+import com.example.valuation_service.batch.EodBatchValuationJob;
+import com.example.valuation_service.service.*;
+import com.example.valuation_service.service.inmemory.InMemoryPositionService;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Batch mode: builds the {@link EodBatchValuationJob} from {@link BatchProperties} and runs it once the
+ * application has started. A scheduler launching the EOD run can add
+ * {@code --spring.main.web-application-type=none} so the process exits when the job is done; a failed run
+ * fails startup and is resumed from its checkpoint by the next launch.
+ * <p>
+ * The book is the accounts of an upstream {@link AccountService} when defined, otherwise every account held
+ * in memory.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "valuation.batch", name = "enabled", havingValue = "true")
+@EnableConfigurationProperties(BatchProperties.class)
+public class BatchConfiguration {
+
+    @Bean
+    @ConditionalOnMissingBean(AccountService.class)
+    public AccountService accountService(InMemoryPositionService positionService) {
+        return positionService::getAccountIds;
+    }
+
+    @Bean
+    public EodBatchValuationJob eodBatchValuationJob(AccountService accountService, PositionService positionService,
+                                                     EligibilityService eligibilityService, PriceService priceService,
+                                                     FXService fxService, BatchProperties properties) {
+        return new EodBatchValuationJob(accountService, positionService, eligibilityService, priceService, fxService,
+                properties.toConfig());
+    }
+
+    @Bean
+    public ApplicationRunner eodBatchValuationRunner(EodBatchValuationJob eodBatchValuationJob) {
+        return args -> eodBatchValuationJob.run();
+    }
+}
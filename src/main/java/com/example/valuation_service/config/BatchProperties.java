@@ -0,0 +1,42 @@
+package com.example.valuation_service.config;
+
+import com.example.valuation_service.batch.BatchValuationConfig;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.nio.file.Path;
+
+/**
+ * EOD batch settings, e.g. {@code valuation.batch.enabled=true},
+ * {@code valuation.batch.output-file=/data/eod/valuations.csv} and
+ * {@code valuation.batch.work-directory=/data/eod/work}.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "valuation.batch")
+public class BatchProperties {
+    /**
+     * Runs the job once the application has started.
+     */
+    private boolean enabled;
+    private String currencyCode = "USD";
+    private Path outputFile;
+    private Path workDirectory;
+    private int partitionSize = 1000;
+    private int parallelism = 4;
+
+    public BatchValuationConfig toConfig() {
+        if (outputFile == null || workDirectory == null) {
+            throw new IllegalStateException(
+                    "valuation.batch.output-file and valuation.batch.work-directory must both be set.");
+        }
+        return BatchValuationConfig.builder()
+                .currencyCode(currencyCode)
+                .outputFile(outputFile)
+                .workDirectory(workDirectory)
+                .partitionSize(partitionSize)
+                .parallelism(parallelism)
+                .build();
+    }
+}
@@ -0,0 +1,35 @@
+package com.example.valuation_service.config;
+
+import com.example.valuation_service.cluster.ConsistentHashRing;
+import com.example.valuation_service.cluster.RestValuationNode;
+import com.example.valuation_service.cluster.ShardedValuationService;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Coordinator mode: builds the ring of remote nodes from {@link ClusterProperties}.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "valuation.cluster", name = "enabled", havingValue = "true")
+@EnableConfigurationProperties(ClusterProperties.class)
+public class ClusterConfiguration {
+
+    @Bean(destroyMethod = "shutdownNow")
+    public ExecutorService clusterFanOutExecutor(ClusterProperties properties) {
+        return Executors.newFixedThreadPool(properties.getFanOutThreads());
+    }
+
+    @Bean
+    public ShardedValuationService shardedValuationService(ClusterProperties properties,
+                                                           ExecutorService clusterFanOutExecutor) {
+        ConsistentHashRing ring = new ConsistentHashRing(properties.getVirtualNodes());
+        properties.getNodes().forEach(node -> ring.addNode(new RestValuationNode(node.getId(), node.getUrl(),
+                properties.getConnectTimeout(), properties.getReadTimeout())));
+        return new ShardedValuationService(ring, clusterFanOutExecutor);
+    }
+}
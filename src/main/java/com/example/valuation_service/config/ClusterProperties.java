@@ -0,0 +1,36 @@
+package com.example.valuation_service.config;
+
+import com.example.valuation_service.cluster.ConsistentHashRing;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Coordinator settings, e.g. {@code valuation.cluster.nodes[0].id=n1} and
+ * {@code valuation.cluster.nodes[0].url=http://127.0.0.1:8081}.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "valuation.cluster")
+public class ClusterProperties {
+    private boolean enabled;
+    /**
+     * Nodes on the ring at startup; more can join later through the membership endpoint.
+     */
+    private List<Node> nodes = new ArrayList<>();
+    private int virtualNodes = ConsistentHashRing.DEFAULT_VIRTUAL_NODES;
+    private int fanOutThreads = 16;
+    private Duration connectTimeout = Duration.ofSeconds(2);
+    private Duration readTimeout = Duration.ofSeconds(30);
+
+    @Getter
+    @Setter
+    public static class Node {
+        private String id;
+        private String url;
+    }
+}
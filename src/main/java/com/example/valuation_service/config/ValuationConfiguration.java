@@ -0,0 +1,48 @@
+package com.example.valuation_service.config;
+
+import com.example.valuation_service.service.*;
+import com.example.valuation_service.service.inmemory.InMemoryEligibilityService;
+import com.example.valuation_service.service.inmemory.InMemoryFXService;
+import com.example.valuation_service.service.inmemory.InMemoryPositionService;
+import com.example.valuation_service.service.inmemory.InMemoryPriceService;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Builds the {@link ValuationService} for this instance. Upstream position, eligibility, price and FX
+ * clients take precedence when defined; otherwise the instance serves its shard from memory.
+ */
+@Configuration
+public class ValuationConfiguration {
+
+    @Bean
+    @ConditionalOnMissingBean(PositionService.class)
+    public InMemoryPositionService positionService() {
+        return new InMemoryPositionService();
+    }
+
+    @Bean
+    @ConditionalOnMissingBean(EligibilityService.class)
+    public InMemoryEligibilityService eligibilityService() {
+        return new InMemoryEligibilityService();
+    }
+
+    @Bean
+    @ConditionalOnMissingBean(PriceService.class)
+    public InMemoryPriceService priceService() {
+        return new InMemoryPriceService();
+    }
+
+    @Bean
+    @ConditionalOnMissingBean(FXService.class)
+    public InMemoryFXService fxService() {
+        return new InMemoryFXService();
+    }
+
+    @Bean
+    public ValuationService valuationService(PositionService positionService, EligibilityService eligibilityService,
+                                             PriceService priceService, FXService fxService) {
+        return new ValuationService(positionService, eligibilityService, priceService, fxService);
+    }
+}
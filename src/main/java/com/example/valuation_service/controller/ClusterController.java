@@ -0,0 +1,95 @@
+package com.example.valuation_service.controller;
+
+import com.example.valuation_service.cluster.RestValuationNode;
+import com.example.valuation_service.cluster.ShardedValuationService;
+import com.example.valuation_service.cluster.ValuationNode;
+import com.example.valuation_service.columnar.ColumnarValuationFormat;
+import com.example.valuation_service.columnar.ColumnarValuationWriter;
+import com.example.valuation_service.config.ClusterProperties;
+import com.example.valuation_service.model.Account;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.AllArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestClientResponseException;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Coordinator endpoints: clustered valuation and ring membership. Nodes join with
+ * {@code PUT /cluster/nodes/{nodeId}?url=...} and leave with {@code DELETE /cluster/nodes/{nodeId}};
+ * only the accounts adjacent to the joining or leaving node move.
+ * <p>
+ * An error status from a node is passed back to the caller unchanged, so an invalid currency is still a 400
+ * and a missing FX rate still a 503; a node that cannot be reached is a 503.
+ */
+@RestController
+@RequestMapping("/cluster")
+@ConditionalOnProperty(prefix = "valuation.cluster", name = "enabled", havingValue = "true")
+@AllArgsConstructor
+public class ClusterController {
+
+    private final ShardedValuationService shardedValuationService;
+    private final ClusterProperties properties;
+
+    @PostMapping("/valuations")
+    public List<Account> calculateValuation(@RequestBody List<String> accountIds,
+                                            @RequestParam("currency") String currencyCode) {
+        return shardedValuationService.calculateValuation(accountIds, currencyCode);
+    }
+
+    /**
+     * Streams the merged valuation in the columnar binary format for bulk consumers that send
+     * {@code Accept: application/x-valuation-columnar}. Shards still reach the coordinator as JSON; only the
+     * response to the caller is columnar.
+     */
+    @PostMapping(value = "/valuations", produces = ColumnarValuationFormat.MEDIA_TYPE)
+    public void calculateValuationColumnar(@RequestBody List<String> accountIds,
+                                           @RequestParam("currency") String currencyCode,
+                                           HttpServletResponse response) throws IOException {
+        response.setContentType(ColumnarValuationFormat.MEDIA_TYPE);
+        ColumnarValuationWriter writer = new ColumnarValuationWriter(response.getOutputStream());
+        shardedValuationService.calculateValuation(accountIds, currencyCode, writer);
+        writer.finish();
+    }
+
+    @GetMapping("/nodes")
+    public List<String> getNodes() {
+        return shardedValuationService.getNodes().stream()
+                .map(ValuationNode::getNodeId)
+                .collect(Collectors.toList());
+    }
+
+    @PutMapping("/nodes/{nodeId}")
+    public ResponseEntity<Void> addNode(@PathVariable String nodeId, @RequestParam("url") String url) {
+        try {
+            shardedValuationService.addNode(new RestValuationNode(nodeId, url, properties.getConnectTimeout(),
+                    properties.getReadTimeout()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
+        return ResponseEntity.noContent().build();
+    }
+
+    @DeleteMapping("/nodes/{nodeId}")
+    public ResponseEntity<Void> removeNode(@PathVariable String nodeId) {
+        return shardedValuationService.removeNode(nodeId)
+                ? ResponseEntity.noContent().build()
+                : ResponseEntity.notFound().build();
+    }
+
+    @ExceptionHandler(RestClientResponseException.class)
+    public void handleNodeError(RestClientResponseException e, HttpServletResponse response) throws IOException {
+        response.sendError(e.getStatusCode().value(), e.getStatusText());
+    }
+
+    @ExceptionHandler(ResourceAccessException.class)
+    public void handleNodeUnreachable(ResourceAccessException e, HttpServletResponse response) throws IOException {
+        response.sendError(HttpStatus.SERVICE_UNAVAILABLE.value(), e.getMessage());
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.valuation_service.controller;
+
+import com.example.valuation_service.columnar.ColumnarValuationFormat;
+import com.example.valuation_service.columnar.ColumnarValuationWriter;
+import com.example.valuation_service.exception.AccountNotFoundException;
+import com.example.valuation_service.exception.CurrencyNotFoundException;
+import com.example.valuation_service.exception.FXRateNotFoundException;
+import com.example.valuation_service.model.Account;
+import com.example.valuation_service.service.ValuationService;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.AllArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Values accounts held by this instance, as JSON or in the columnar binary format. A coordinator routes its
+ * shard of accounts here when this instance is a node of a cluster.
+ */
+@RestController
+@RequestMapping("/valuations")
+@AllArgsConstructor
+public class ValuationController {
+
+    private final ValuationService valuationService;
+
+    @PostMapping
+    public List<Account> calculateValuation(@RequestBody List<String> accountIds,
+                                            @RequestParam("currency") String currencyCode) {
+        return valuationService.calculateValuation(accountIds, currencyCode);
+    }
+
+    /**
+     * Streams the valuation in the columnar binary format for bulk consumers that send
+     * {@code Accept: application/x-valuation-columnar}.
+     * <p>
+     * The servlet stream belongs to the container and is not closed here. Nothing is written until the first
+     * chunk fills, so a valuation that fails before then still reaches the error handlers with the response
+     * uncommitted; one that fails later leaves the stream without its end marker, which readers report as
+     * truncated.
+     */
+    @PostMapping(produces = ColumnarValuationFormat.MEDIA_TYPE)
+    public void calculateValuationColumnar(@RequestBody List<String> accountIds,
+                                           @RequestParam("currency") String currencyCode,
+                                           HttpServletResponse response) throws IOException {
+        response.setContentType(ColumnarValuationFormat.MEDIA_TYPE);
+        ColumnarValuationWriter writer = new ColumnarValuationWriter(response.getOutputStream());
+        valuationService.calculateValuation(accountIds, currencyCode, writer);
+        writer.finish();
+    }
+
+    @ExceptionHandler(AccountNotFoundException.class)
+    public void handleAccountNotFound(AccountNotFoundException e, HttpServletResponse response) throws IOException {
+        response.sendError(HttpStatus.NOT_FOUND.value(), e.getMessage());
+    }
+
+    @ExceptionHandler(CurrencyNotFoundException.class)
+    public void handleCurrencyNotFound(CurrencyNotFoundException e, HttpServletResponse response) throws IOException {
+        response.sendError(HttpStatus.BAD_REQUEST.value(), e.getMessage());
+    }
+
+    @ExceptionHandler(FXRateNotFoundException.class)
+    public void handleFXRateNotFound(FXRateNotFoundException e, HttpServletResponse response) throws IOException {
+        response.sendError(HttpStatus.SERVICE_UNAVAILABLE.value(), e.getMessage());
+    }
+}
@@ -0,0 +1,7 @@
+package com.example.valuation_service.exception;
+
+public class AccountNotFoundException extends RuntimeException {
+    public AccountNotFoundException(String message) {
+        super(message);
+    }
+}
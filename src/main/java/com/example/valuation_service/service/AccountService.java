@@ -0,0 +1,7 @@
+package com.example.valuation_service.service;
+
+import java.util.List;
+
+public interface AccountService {
+    List<String> getAccountIds();
+}
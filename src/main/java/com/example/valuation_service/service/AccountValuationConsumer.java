@@ -0,0 +1,9 @@
+package com.example.valuation_service.service;
+
+/**
+ * Receives each account's valuation as it is calculated, without materialising an Account object.
+ */
+@FunctionalInterface
+public interface AccountValuationConsumer {
+    void accept(String accountId, double collateralValue, double marketValue);
+}
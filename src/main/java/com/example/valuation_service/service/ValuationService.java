@@ -28,10 +28,23 @@ public class ValuationService {
      */
     public List<Account> calculateValuation(List<String> accountIds, String currencyCode) {
         List<Account> result = new ArrayList<>();
+        calculateValuation(accountIds, currencyCode,
+                (accountId, collateralValue, marketValue) -> result.add(new Account(accountId, collateralValue, marketValue)));
+        return result;
+    }
 
+    /**
+     * Calculates the valuation for a list of accounts in the specified currency, handing each account's
+     * values to the consumer as soon as they are known.
+     *
+     * @param accountIds   List of account IDs
+     * @param currencyCode Target currency code
+     * @param consumer     Receives the collateral and market value of each account, in position order
+     */
+    public void calculateValuation(List<String> accountIds, String currencyCode, AccountValuationConsumer consumer) {
         List<AccountPosition> accountPositions = positionService.getPositions(accountIds);
         if (CollectionUtils.isEmpty(accountPositions)) {
-            return result;
+            return;
         }
         List<String> assetIds = extractAssetIds(accountPositions);
 
@@ -56,11 +69,10 @@ public class ValuationService {
                 }
             }
 
-            result.add(new Account(accountPosition.getAccountId(),
+            consumer.accept(accountPosition.getAccountId(),
                     formatValue(getValueBasedOnCurrency(fxRates, currencyCode, collateralValue)),
-                    formatValue(getValueBasedOnCurrency(fxRates, currencyCode, marketValue))));
+                    formatValue(getValueBasedOnCurrency(fxRates, currencyCode, marketValue)));
         }
-        return result;
     }
 
     private Map<String, Double> getFxRatesMap() {
@@ -0,0 +1,32 @@
+package com.example.valuation_service.service.inmemory;
+
+import com.example.valuation_service.model.Eligibility;
+import com.example.valuation_service.service.EligibilityService;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Collectors;
+
+/**
+ * Eligibility rules held in this instance's memory, used when no upstream eligibility service is configured.
+ */
+public class InMemoryEligibilityService implements EligibilityService {
+
+    private final List<Eligibility> eligibilityList = new CopyOnWriteArrayList<>();
+
+    public void addEligibility(Eligibility eligibility) {
+        eligibilityList.add(eligibility);
+    }
+
+    /**
+     * Returns the rules covering at least one of the given accounts and one of the given assets.
+     */
+    @Override
+    public List<Eligibility> getEligibility(List<String> accountIds, List<String> assetIds) {
+        return eligibilityList.stream()
+                .filter(eligibility -> !Collections.disjoint(eligibility.getAccountIDs(), accountIds)
+                        && !Collections.disjoint(eligibility.getAssetIDs(), assetIds))
+                .collect(Collectors.toList());
+    }
+}
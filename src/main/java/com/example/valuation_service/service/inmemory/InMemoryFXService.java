@@ -0,0 +1,26 @@
+package com.example.valuation_service.service.inmemory;
+
+import com.example.valuation_service.model.FXRate;
+import com.example.valuation_service.service.FXService;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * FX rates held in this instance's memory, used when no upstream FX service is configured.
+ */
+public class InMemoryFXService implements FXService {
+
+    private final Map<String, FXRate> fxRates = new ConcurrentHashMap<>();
+
+    public void putFXRate(FXRate fxRate) {
+        fxRates.put(fxRate.getCurrency(), fxRate);
+    }
+
+    @Override
+    public List<FXRate> getFXRates() {
+        return new ArrayList<>(fxRates.values());
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.valuation_service.service.inmemory;
+
+import com.example.valuation_service.exception.AccountNotFoundException;
+import com.example.valuation_service.model.AccountPosition;
+import com.example.valuation_service.model.Position;
+import com.example.valuation_service.service.PositionService;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Positions held in this instance's memory, used when no upstream position service is configured.
+ * <p>
+ * In a cluster this is the node's shard. Ring membership changes do not move positions between nodes, so a
+ * request for an account this instance was never loaded with fails rather than silently leaving the
+ * account out of the valuation.
+ */
+public class InMemoryPositionService implements PositionService {
+
+    private final Map<String, List<Position>> positions = new ConcurrentHashMap<>();
+
+    public void putPositions(String accountId, List<Position> accountPositions) {
+        positions.put(accountId, List.copyOf(accountPositions));
+    }
+
+    /**
+     * Returns every account this instance holds positions for.
+     */
+    public List<String> getAccountIds() {
+        return new ArrayList<>(positions.keySet());
+    }
+
+    /**
+     * @throws AccountNotFoundException If any of the accounts is not held by this instance
+     */
+    @Override
+    public List<AccountPosition> getPositions(List<String> accountIds) {
+        List<String> missing = accountIds.stream()
+                .filter(accountId -> !positions.containsKey(accountId))
+                .collect(Collectors.toList());
+        if (!missing.isEmpty()) {
+            throw new AccountNotFoundException(missing.size() + " account(s) not held by this instance, starting with '"
+                    + missing.get(0) + "'.");
+        }
+        return accountIds.stream()
+                .map(accountId -> new AccountPosition(accountId, positions.get(accountId)))
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,29 @@
+package com.example.valuation_service.service.inmemory;
+
+import com.example.valuation_service.model.Price;
+import com.example.valuation_service.service.PriceService;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Prices held in this instance's memory, used when no upstream price service is configured.
+ */
+public class InMemoryPriceService implements PriceService {
+
+    private final Map<String, Price> prices = new ConcurrentHashMap<>();
+
+    public void putPrice(Price price) {
+        prices.put(price.getAssetId(), price);
+    }
+
+    @Override
+    public List<Price> getPrices(List<String> assetIds) {
+        return assetIds.stream()
+                .filter(prices::containsKey)
+                .map(prices::get)
+                .collect(Collectors.toList());
+    }
+}
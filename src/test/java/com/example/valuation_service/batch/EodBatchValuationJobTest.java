@@ -0,0 +1,266 @@
+package com.example.valuation_service.batch;
+
+import com.example.valuation_service.model.*;
+import com.example.valuation_service.service.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+public class EodBatchValuationJobTest {
+
+    @Mock
+    AccountService accountService;
+
+    @Mock
+    PositionService positionService;
+
+    @Mock
+    EligibilityService eligibilityService;
+
+    @Mock
+    PriceService priceService;
+
+    @Mock
+    FXService fxService;
+
+    @TempDir
+    Path tempDir;
+
+    private List<String> accountIds;
+
+    @BeforeEach
+    public void setUp() {
+        // Deliberately unsorted: the job sorts the book so partitions are stable across runs.
+        accountIds = IntStream.range(0, 10).mapToObj(i -> "E" + (9 - i)).collect(Collectors.toList());
+        when(accountService.getAccountIds()).thenReturn(accountIds);
+        when(positionService.getPositions(anyList())).thenAnswer(invocation -> positions(invocation.getArgument(0)));
+        when(eligibilityService.getEligibility(anyList(), anyList())).thenAnswer(invocation ->
+                List.of(new Eligibility(true, invocation.getArgument(1), invocation.getArgument(0), 0.5)));
+        when(priceService.getPrices(anyList())).thenAnswer(invocation -> {
+            List<String> assetIds = invocation.getArgument(0);
+            return assetIds.stream().map(assetId -> new Price(assetId, 10, "USD")).collect(Collectors.toList());
+        });
+        when(fxService.getFXRates()).thenReturn(List.of(new FXRate("USD", 1), new FXRate("GBP", 1.25)));
+    }
+
+    @Test
+    @DisplayName("All accounts are valued in partitions and written to the output file")
+    void testRunValuesWholeBook() throws Exception {
+        BatchValuationReport report = newJob(3, 2).run();
+
+        assertEquals(10, report.getTotalAccounts());
+        assertEquals(4, report.getTotalPartitions());
+        assertEquals(0, report.getResumedPartitions());
+        assertEquals(10, report.getValuedAccounts());
+        assertTrue(report.getAccountsPerSecond() > 0);
+
+        List<String> output = Files.readAllLines(outputFile());
+        assertEquals("accountId,collateralValue,marketValue", output.get(0));
+        assertEquals(11, output.size());
+        assertEquals("E0,550.00,1100.00", output.get(1));
+        assertEquals("E5,6172885.00,12345770.00", output.get(6));
+        assertEquals("E9,550.00,1100.00", output.get(10));
+        try (var files = Files.list(workDirectory())) {
+            assertEquals(0, files.count());
+        }
+    }
+
+    @Test
+    @DisplayName("A crashed run resumes from its checkpoint against the snapshot taken at the start")
+    void testRunResumesAfterFailure() throws Exception {
+        when(positionService.getPositions(anyList())).thenAnswer(invocation -> {
+            List<String> ids = invocation.getArgument(0);
+            return ids.stream()
+                    .map(id -> new AccountPosition(id, List.of(Position.builder().assetId("S1").quantity(100).build())))
+                    .collect(Collectors.toList());
+        });
+        EodBatchValuationJob crashingJob = new EodBatchValuationJob(accountService, positionService,
+                eligibilityService, priceService, fxService, config(3, 1)) {
+            @Override
+            void valuePartition(BatchSnapshot snapshot, int index) {
+                if (index == 3) {
+                    throw new IllegalStateException("Crashed");
+                }
+                super.valuePartition(snapshot, index);
+            }
+        };
+
+        assertThrows(IllegalStateException.class, crashingJob::run);
+        assertTrue(Files.exists(workDirectory().resolve(EodBatchValuationJob.CHECKPOINT_FILE)));
+
+        // Upstream data moves on overnight; the resumed run must value against the snapshot taken before the crash.
+        when(positionService.getPositions(anyList())).thenReturn(List.of());
+        when(eligibilityService.getEligibility(anyList(), anyList()))
+                .thenReturn(List.of(new Eligibility(true, List.of("S1"), List.of("E9"), 0.9)));
+        when(priceService.getPrices(anyList())).thenReturn(List.of(new Price("S1", 99, "USD")));
+        when(fxService.getFXRates()).thenReturn(List.of(new FXRate("USD", 2)));
+
+        BatchValuationReport report = newJob(3, 1).run();
+
+        assertEquals(3, report.getResumedPartitions());
+        assertEquals(1, report.getValuedAccounts());
+        verify(positionService, times(4)).getPositions(anyList());
+        verify(eligibilityService, times(4)).getEligibility(anyList(), anyList());
+        verify(priceService, times(1)).getPrices(anyList());
+        verify(fxService, times(1)).getFXRates();
+
+        List<String> output = Files.readAllLines(outputFile());
+        assertEquals(11, output.size());
+        output.subList(1, output.size()).forEach(line -> assertTrue(line.endsWith(",500.00,1000.00"), line));
+    }
+
+    @Test
+    @DisplayName("A crash while taking the snapshot resumes it without refetching captured partitions")
+    void testRunResumesSnapshotAfterFailure() throws Exception {
+        AtomicBoolean failed = new AtomicBoolean();
+        doAnswer(invocation -> {
+            List<String> ids = invocation.getArgument(0);
+            if (ids.contains("E9") && failed.compareAndSet(false, true)) {
+                throw new IllegalStateException("Position service unavailable");
+            }
+            return positions(ids);
+        }).when(positionService).getPositions(anyList());
+
+        assertThrows(IllegalStateException.class, () -> newJob(3, 1).run());
+        assertEquals(List.of("snapshot 0", "snapshot 1", "snapshot 2"), Files.readAllLines(
+                workDirectory().resolve(EodBatchValuationJob.CHECKPOINT_FILE)).subList(1, 4));
+
+        BatchValuationReport report = newJob(3, 1).run();
+
+        assertEquals(0, report.getResumedPartitions());
+        assertEquals(10, report.getValuedAccounts());
+        // Three partitions captured, one failed attempt, then only the missing partition on resume.
+        verify(positionService, times(5)).getPositions(anyList());
+        verify(eligibilityService, times(4)).getEligibility(anyList(), anyList());
+        List<String> output = Files.readAllLines(outputFile());
+        assertEquals(11, output.size());
+        assertEquals("E0,550.00,1100.00", output.get(1));
+    }
+
+    @Test
+    @DisplayName("A crash while fetching prices resumes with the captured positions")
+    void testRunResumesAfterPriceFailure() throws Exception {
+        when(priceService.getPrices(anyList())).thenThrow(new IllegalStateException("Price service unavailable"));
+
+        assertThrows(IllegalStateException.class, () -> newJob(3, 2).run());
+        assertTrue(Files.exists(workDirectory().resolve(EodBatchValuationJob.CHECKPOINT_FILE)));
+
+        doAnswer(invocation -> {
+            List<String> assetIds = invocation.getArgument(0);
+            return assetIds.stream().map(assetId -> new Price(assetId, 10, "USD")).collect(Collectors.toList());
+        }).when(priceService).getPrices(anyList());
+        BatchValuationReport report = newJob(3, 2).run();
+
+        assertEquals(10, report.getValuedAccounts());
+        verify(positionService, times(4)).getPositions(anyList());
+        assertEquals("E0,550.00,1100.00", Files.readAllLines(outputFile()).get(1));
+    }
+
+    @Test
+    @DisplayName("Values are converted to the configured currency")
+    void testRunInConfiguredCurrency() throws Exception {
+        BatchValuationConfig config = BatchValuationConfig.builder()
+                .currencyCode("GBP")
+                .outputFile(outputFile())
+                .workDirectory(workDirectory())
+                .build();
+
+        new EodBatchValuationJob(accountService, positionService, eligibilityService, priceService, fxService,
+                config).run();
+
+        assertEquals("E0,440.00,880.00", Files.readAllLines(outputFile()).get(1));
+    }
+
+    @Test
+    @DisplayName("A checkpoint for a different partitioning is rejected")
+    void testRunWithMismatchedCheckpoint() throws Exception {
+        Files.createDirectories(workDirectory());
+        Files.writeString(workDirectory().resolve(EodBatchValuationJob.CHECKPOINT_FILE), "USD,5,10,0\n0\n");
+
+        assertThrows(IllegalStateException.class, () -> newJob(3, 2).run());
+    }
+
+    @Test
+    @DisplayName("Clearing the work directory removes only the files the job created")
+    void testRunKeepsUnrelatedFiles() throws Exception {
+        Files.createDirectories(workDirectory());
+        Path unrelated = Files.writeString(workDirectory().resolve("README.txt"), "Not the job's");
+
+        newJob(3, 2).run();
+
+        assertTrue(Files.exists(unrelated));
+        try (var files = Files.list(workDirectory())) {
+            assertEquals(List.of(unrelated), files.collect(Collectors.toList()));
+        }
+    }
+
+    @Test
+    @DisplayName("Output file inside the work directory is rejected")
+    void testOutputFileInWorkDirectory() {
+        BatchValuationConfig config = BatchValuationConfig.builder()
+                .currencyCode("USD")
+                .outputFile(workDirectory().resolve("valuations.csv"))
+                .workDirectory(workDirectory())
+                .build();
+
+        assertThrows(IllegalArgumentException.class, () -> new EodBatchValuationJob(accountService, positionService,
+                eligibilityService, priceService, fxService, config));
+    }
+
+    @Test
+    @DisplayName("Non-positive partition size is rejected")
+    void testInvalidPartitionSize() {
+        assertThrows(IllegalArgumentException.class, () -> newJob(0, 2));
+    }
+
+    private static List<AccountPosition> positions(List<String> accountIds) {
+        return accountIds.stream()
+                .map(id -> new AccountPosition(id, List.of(
+                        // E5 holds enough to be valued above 1e7, which must not be written in scientific notation.
+                        Position.builder().assetId("S1").quantity(id.equals("E5") ? 1_234_567 : 100).build(),
+                        Position.builder().assetId("S" + id).quantity(10).build())))
+                .collect(Collectors.toList());
+    }
+
+    private EodBatchValuationJob newJob(int partitionSize, int parallelism) {
+        return new EodBatchValuationJob(accountService, positionService, eligibilityService, priceService, fxService,
+                config(partitionSize, parallelism));
+    }
+
+    private BatchValuationConfig config(int partitionSize, int parallelism) {
+        return BatchValuationConfig.builder()
+                .currencyCode("USD")
+                .outputFile(outputFile())
+                .workDirectory(workDirectory())
+                .partitionSize(partitionSize)
+                .parallelism(parallelism)
+                .build();
+    }
+
+    private Path outputFile() {
+        return tempDir.resolve("valuations.csv");
+    }
+
+    private Path workDirectory() {
+        return tempDir.resolve("work");
+    }
+}
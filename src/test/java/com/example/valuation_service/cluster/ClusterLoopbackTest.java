@@ -0,0 +1,129 @@
+package com.example.valuation_service.cluster;
+
+import com.example.valuation_service.model.Account;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.web.client.RestClient;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.example.valuation_service.cluster.LoopbackNodes.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs several valuation-service instances in this JVM, each on its own loopback port and loaded with
+ * only the positions of its ring shard, and values through them over HTTP.
+ */
+public class ClusterLoopbackTest {
+
+    private static final int NODES = 3;
+    private static final Duration TIMEOUT = Duration.ofSeconds(30);
+    private static final ParameterizedTypeReference<List<Account>> ACCOUNT_LIST = new ParameterizedTypeReference<>() {
+    };
+
+    private static final List<ConfigurableApplicationContext> nodes = new ArrayList<>();
+    private static ConfigurableApplicationContext coordinator;
+    private static List<String> accountIds;
+    private static List<Account> expected;
+
+    @BeforeAll
+    public static void startCluster() {
+        accountIds = accountIds(2000);
+        expected = valueInProcess(accountIds, "GBP");
+        for (int i = 0; i < NODES; i++) {
+            ConfigurableApplicationContext node = start();
+            loadReferenceData(node, accountIds);
+            nodes.add(node);
+        }
+        loadShards(2);
+        coordinator = start("--valuation.cluster.enabled=true",
+                "--valuation.cluster.nodes[0].id=N0", "--valuation.cluster.nodes[0].url=" + url(nodes.get(0)),
+                "--valuation.cluster.nodes[1].id=N1", "--valuation.cluster.nodes[1].url=" + url(nodes.get(1)));
+    }
+
+    @AfterAll
+    public static void stopCluster() {
+        if (coordinator != null) {
+            coordinator.close();
+        }
+        nodes.forEach(ConfigurableApplicationContext::close);
+    }
+
+    @Test
+    @DisplayName("Coordinator configured with nodes merges their shards over loopback")
+    void testCoordinatorMatchesSingleNode() {
+        List<Account> result = RestClient.create(url(coordinator)).post()
+                .uri("/cluster/valuations?currency=GBP")
+                .body(accountIds)
+                .retrieve()
+                .body(ACCOUNT_LIST);
+
+        assertSameValuation(expected, result);
+    }
+
+    @Test
+    @DisplayName("Nodes join and leave the coordinator's ring through the membership endpoint")
+    void testMembershipChanges() {
+        RestClient client = RestClient.create(url(coordinator));
+
+        assertEquals(204, putNode(client, "N2", url(nodes.get(2))).value());
+        assertEquals(409, putNode(client, "N2", url(nodes.get(2))).value());
+        assertEquals(3, client.get().uri("/cluster/nodes").retrieve().body(List.class).size());
+        assertEquals(404, postValuation(client).value());
+
+        loadShards(3);
+        assertSameValuation(expected, client.post().uri("/cluster/valuations?currency=GBP")
+                .body(accountIds).retrieve().body(ACCOUNT_LIST));
+
+        assertEquals(204, deleteNode(client, "N2").value());
+        assertEquals(404, deleteNode(client, "N2").value());
+        assertEquals(2, client.get().uri("/cluster/nodes").retrieve().body(List.class).size());
+        // N0 and N1 still hold the accounts they handed to N2.
+        assertSameValuation(expected, client.post().uri("/cluster/valuations?currency=GBP")
+                .body(accountIds).retrieve().body(ACCOUNT_LIST));
+    }
+
+    /**
+     * Loads each of the first nodes with the positions the ring of those nodes assigns to it.
+     */
+    private static void loadShards(int nodeCount) {
+        ConsistentHashRing ring = new ConsistentHashRing();
+        for (int i = 0; i < nodeCount; i++) {
+            ring.addNode(new RestValuationNode("N" + i, url(nodes.get(i)), TIMEOUT, TIMEOUT));
+        }
+        for (int i = 0; i < nodeCount; i++) {
+            loadPositions(nodes.get(i), shard(ring, "N" + i, accountIds));
+        }
+    }
+
+    private static HttpStatusCode postValuation(RestClient client) {
+        return client.post().uri("/cluster/valuations?currency=GBP").body(accountIds)
+                .exchange((request, response) -> response.getStatusCode());
+    }
+
+    private static HttpStatusCode putNode(RestClient client, String nodeId, String nodeUrl) {
+        return client.put().uri("/cluster/nodes/{id}?url={url}", nodeId, nodeUrl)
+                .exchange((request, response) -> response.getStatusCode());
+    }
+
+    private static HttpStatusCode deleteNode(RestClient client, String nodeId) {
+        return client.delete().uri("/cluster/nodes/{id}", nodeId)
+                .exchange((request, response) -> response.getStatusCode());
+    }
+
+    private static void assertSameValuation(List<Account> expected, List<Account> actual) {
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.get(i).getAccountId(), actual.get(i).getAccountId());
+            assertEquals(expected.get(i).getCollateralValue(), actual.get(i).getCollateralValue());
+            assertEquals(expected.get(i).getMarketValue(), actual.get(i).getMarketValue());
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package com.example.valuation_service.cluster;
+
+import com.example.valuation_service.model.Account;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static com.example.valuation_service.cluster.LoopbackNodes.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Measures clustered throughput against 1, 2 and 4 loopback nodes under concurrent client load.
+ * Run with {@code -Dbenchmark=true}.
+ * <p>
+ * The nodes share this JVM and its cores, so the speedup measured here comes from each node valuing only
+ * its own shard (its positions and the eligibility rules covering them), not from extra hardware; nodes on
+ * separate hosts add their CPUs on top.
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+public class ClusterThroughputBenchmarkTest {
+
+    private static final Logger log = LoggerFactory.getLogger(ClusterThroughputBenchmarkTest.class);
+    private static final int NODES = 4;
+    private static final int CLIENTS = 8;
+    private static final int REQUESTS_PER_CLIENT = 10;
+    private static final double MIN_SPEEDUP = 1.5;
+    private static final Duration TIMEOUT = Duration.ofSeconds(60);
+
+    private static final List<ConfigurableApplicationContext> nodes = new ArrayList<>();
+    private static ExecutorService fanOut;
+    private static ExecutorService clients;
+    private static List<String> accountIds;
+
+    @BeforeAll
+    public static void startNodes() {
+        accountIds = accountIds(2000);
+        for (int i = 0; i < NODES; i++) {
+            ConfigurableApplicationContext node = start();
+            loadReferenceData(node, accountIds);
+            nodes.add(node);
+        }
+        fanOut = Executors.newFixedThreadPool(CLIENTS * NODES);
+        clients = Executors.newFixedThreadPool(CLIENTS);
+    }
+
+    @AfterAll
+    public static void stopNodes() {
+        clients.shutdownNow();
+        fanOut.shutdownNow();
+        nodes.forEach(ConfigurableApplicationContext::close);
+    }
+
+    @Test
+    @DisplayName("Clustered throughput grows with the number of nodes")
+    void testThroughputByNodeCount() throws Exception {
+        List<Account> expected = valueInProcess(accountIds, "GBP");
+        Map<Integer, Double> accountsPerSecond = new LinkedHashMap<>();
+
+        for (int nodeCount = 1; nodeCount <= NODES; nodeCount *= 2) {
+            ConsistentHashRing ring = new ConsistentHashRing();
+            for (int i = 0; i < nodeCount; i++) {
+                ring.addNode(new RestValuationNode("N" + i, url(nodes.get(i)), TIMEOUT, TIMEOUT));
+            }
+            // Loading is additive: a node keeps the accounts of smaller rings, which it is no longer asked for.
+            for (int i = 0; i < nodeCount; i++) {
+                loadPositions(nodes.get(i), shard(ring, "N" + i, accountIds));
+            }
+            ShardedValuationService service = new ShardedValuationService(ring, fanOut);
+            List<Account> result = service.calculateValuation(accountIds, "GBP");
+            assertEquals(expected.size(), result.size());
+            for (int i = 0; i < expected.size(); i++) {
+                assertEquals(expected.get(i).getCollateralValue(), result.get(i).getCollateralValue());
+            }
+
+            long start = System.nanoTime();
+            List<Future<?>> load = new ArrayList<>();
+            for (int client = 0; client < CLIENTS; client++) {
+                load.add(clients.submit(() -> {
+                    for (int request = 0; request < REQUESTS_PER_CLIENT; request++) {
+                        service.calculateValuation(accountIds, "GBP");
+                    }
+                }));
+            }
+            for (Future<?> client : load) {
+                client.get();
+            }
+            double seconds = (System.nanoTime() - start) / 1e9;
+            accountsPerSecond.put(nodeCount, CLIENTS * REQUESTS_PER_CLIENT * accountIds.size() / seconds);
+            log.info("{} loopback node(s), {} concurrent clients: {} accounts/s", nodeCount, CLIENTS,
+                    String.format("%.0f", accountsPerSecond.get(nodeCount)));
+        }
+
+        double speedup = accountsPerSecond.get(NODES) / accountsPerSecond.get(1);
+        log.info("{} nodes vs 1: {}x throughput", NODES, String.format("%.1f", speedup));
+        assertTrue(speedup >= MIN_SPEEDUP, "Expected at least " + MIN_SPEEDUP + "x throughput with " + NODES
+                + " nodes, measured " + String.format("%.2f", speedup) + "x");
+    }
+}
@@ -0,0 +1,109 @@
+package com.example.valuation_service.cluster;
+
+import com.example.valuation_service.ValuationServiceApplication;
+import com.example.valuation_service.model.*;
+import com.example.valuation_service.service.ValuationService;
+import com.example.valuation_service.service.inmemory.InMemoryEligibilityService;
+import com.example.valuation_service.service.inmemory.InMemoryFXService;
+import com.example.valuation_service.service.inmemory.InMemoryPositionService;
+import com.example.valuation_service.service.inmemory.InMemoryPriceService;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Starts valuation-service instances on loopback ports and loads them with a synthetic book: reference
+ * data (FX rates, prices, one eligibility rule per account) on every instance, positions only for the
+ * accounts an instance owns.
+ */
+final class LoopbackNodes {
+
+    static final int ASSETS = 20;
+
+    private LoopbackNodes() {
+    }
+
+    static ConfigurableApplicationContext start(String... args) {
+        List<String> arguments = new ArrayList<>(List.of("--server.port=0", "--spring.main.banner-mode=off"));
+        arguments.addAll(List.of(args));
+        return new SpringApplicationBuilder(ValuationServiceApplication.class).run(arguments.toArray(String[]::new));
+    }
+
+    static String url(ConfigurableApplicationContext context) {
+        return "http://127.0.0.1:" + ((WebServerApplicationContext) context).getWebServer().getPort();
+    }
+
+    static List<String> accountIds(int count) {
+        return IntStream.range(0, count).mapToObj(i -> String.format("A%05d", i)).collect(Collectors.toList());
+    }
+
+    /**
+     * Returns the accounts the ring assigns to the given node.
+     */
+    static List<String> shard(ConsistentHashRing ring, String nodeId, List<String> accountIds) {
+        return accountIds.stream()
+                .filter(accountId -> ring.getNode(accountId).getNodeId().equals(nodeId))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Values the whole book in this JVM without HTTP, as a single instance holding every position would.
+     */
+    static List<Account> valueInProcess(List<String> accountIds, String currencyCode) {
+        InMemoryPositionService positionService = new InMemoryPositionService();
+        InMemoryEligibilityService eligibilityService = new InMemoryEligibilityService();
+        InMemoryPriceService priceService = new InMemoryPriceService();
+        InMemoryFXService fxService = new InMemoryFXService();
+        loadReferenceData(fxService, priceService, eligibilityService, accountIds);
+        loadPositions(positionService, accountIds);
+        return new ValuationService(positionService, eligibilityService, priceService, fxService)
+                .calculateValuation(accountIds, currencyCode);
+    }
+
+    static void loadReferenceData(ConfigurableApplicationContext node, List<String> accountIds) {
+        loadReferenceData(node.getBean(InMemoryFXService.class), node.getBean(InMemoryPriceService.class),
+                node.getBean(InMemoryEligibilityService.class), accountIds);
+    }
+
+    static void loadReferenceData(InMemoryFXService fxService, InMemoryPriceService priceService,
+                                  InMemoryEligibilityService eligibilityService, List<String> accountIds) {
+        fxService.putFXRate(new FXRate("USD", 1));
+        fxService.putFXRate(new FXRate("GBP", 1.28));
+        fxService.putFXRate(new FXRate("EUR", 1.10));
+
+        String[] currencies = {"GBP", "USD", "EUR"};
+        for (int asset = 0; asset < ASSETS; asset++) {
+            priceService.putPrice(new Price("S" + asset, 10 + asset * 1.5, currencies[asset % currencies.length]));
+        }
+
+        for (int i = 0; i < accountIds.size(); i++) {
+            int group = i % 4;
+            List<String> assets = IntStream.range(0, ASSETS)
+                    .filter(asset -> asset % 4 != group)
+                    .mapToObj(asset -> "S" + asset)
+                    .collect(Collectors.toList());
+            eligibilityService.addEligibility(new Eligibility(true, assets, List.of(accountIds.get(i)), 0.5 + group * 0.1));
+        }
+    }
+
+    static void loadPositions(ConfigurableApplicationContext node, Collection<String> accountIds) {
+        loadPositions(node.getBean(InMemoryPositionService.class), accountIds);
+    }
+
+    static void loadPositions(InMemoryPositionService positionService, Collection<String> accountIds) {
+        for (String accountId : accountIds) {
+            int i = Integer.parseInt(accountId.substring(1));
+            List<Position> positions = new ArrayList<>();
+            for (int j = 0; j < 5; j++) {
+                positions.add(Position.builder().assetId("S" + ((i * 7 + j * 13) % ASSETS)).quantity(10 + (i + j) % 90).build());
+            }
+            positionService.putPositions(accountId, positions);
+        }
+    }
+}
@@ -0,0 +1,181 @@
+package com.example.valuation_service.cluster;
+
+import com.example.valuation_service.exception.CurrencyNotFoundException;
+import com.example.valuation_service.model.Account;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ShardedValuationServiceTest {
+
+    private ExecutorService executor;
+
+    @BeforeEach
+    public void setUp() {
+        executor = Executors.newFixedThreadPool(8);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    @DisplayName("Same account always routes to the same node")
+    void testRingRoutingIsStable() {
+        ConsistentHashRing ring = ringOf(3);
+        ConsistentHashRing sameRing = ringOf(3);
+
+        for (String accountId : accountIds(1000)) {
+            assertEquals(ring.getNode(accountId).getNodeId(), sameRing.getNode(accountId).getNodeId());
+        }
+    }
+
+    @Test
+    @DisplayName("Accounts are spread across all nodes")
+    void testRingDistribution() {
+        Map<ValuationNode, List<String>> shards = ringOf(4).partition(accountIds(10000));
+
+        assertEquals(4, shards.size());
+        shards.values().forEach(shard -> assertTrue(shard.size() > 1500, "Shard too small: " + shard.size()));
+    }
+
+    @Test
+    @DisplayName("Adding a node only moves accounts onto the new node")
+    void testRebalanceOnNodeJoin() {
+        ConsistentHashRing ring = ringOf(3);
+        List<String> accountIds = accountIds(10000);
+        Map<String, String> before = owners(ring, accountIds);
+
+        ring.addNode(new FakeNode("N3"));
+        Map<String, String> after = owners(ring, accountIds);
+
+        long moved = accountIds.stream().filter(id -> !before.get(id).equals(after.get(id))).count();
+        accountIds.stream()
+                .filter(id -> !before.get(id).equals(after.get(id)))
+                .forEach(id -> assertEquals("N3", after.get(id)));
+        assertTrue(moved > 1500 && moved < 3500, "Unexpected number of moved accounts: " + moved);
+    }
+
+    @Test
+    @DisplayName("Removing a node only moves that node's accounts")
+    void testRebalanceOnNodeLeave() {
+        ConsistentHashRing ring = ringOf(4);
+        List<String> accountIds = accountIds(10000);
+        Map<String, String> before = owners(ring, accountIds);
+
+        ring.removeNode("N1");
+        Map<String, String> after = owners(ring, accountIds);
+
+        accountIds.stream()
+                .filter(id -> !before.get(id).equals("N1"))
+                .forEach(id -> assertEquals(before.get(id), after.get(id)));
+        assertFalse(after.containsValue("N1"));
+    }
+
+    @Test
+    @DisplayName("Adding a node twice is rejected")
+    void testDuplicateNode() {
+        ConsistentHashRing ring = ringOf(2);
+        assertThrows(IllegalArgumentException.class, () -> ring.addNode(new FakeNode("N0")));
+    }
+
+    @Test
+    @DisplayName("Results from all shards are merged in request order")
+    void testCalculateValuationMergesShards() {
+        ShardedValuationService service = new ShardedValuationService(ringOf(3), executor);
+        List<String> accountIds = accountIds(100);
+
+        List<Account> result = service.calculateValuation(accountIds, "USD");
+
+        assertEquals(accountIds, result.stream().map(Account::getAccountId).collect(Collectors.toList()));
+        assertEquals(3, result.stream().map(Account::getCollateralValue).distinct().count());
+    }
+
+    @Test
+    @DisplayName("Repeated account IDs get one result per occurrence")
+    void testCalculateValuationWithRepeatedAccountIds() {
+        ShardedValuationService service = new ShardedValuationService(ringOf(3), executor);
+        List<String> accountIds = List.of("E1", "E2", "E1", "E3", "E1");
+
+        List<Account> result = service.calculateValuation(accountIds, "USD");
+
+        assertEquals(accountIds, result.stream().map(Account::getAccountId).collect(Collectors.toList()));
+    }
+
+    @Test
+    @DisplayName("Empty Account List should return empty result")
+    void testCalculateValuationWithEmptyAccountList() {
+        ShardedValuationService service = new ShardedValuationService(ringOf(3), executor);
+        assertTrue(service.calculateValuation(Collections.emptyList(), "USD").isEmpty());
+    }
+
+    @Test
+    @DisplayName("Failure on a node is rethrown to the caller")
+    void testCalculateValuationPropagatesNodeFailure() {
+        ShardedValuationService service = new ShardedValuationService(ringOf(3), executor);
+        assertThrows(CurrencyNotFoundException.class,
+                () -> service.calculateValuation(accountIds(100), "InvalidCurrency"));
+    }
+
+    @Test
+    @DisplayName("No nodes in the ring should fail")
+    void testCalculateValuationWithNoNodes() {
+        ShardedValuationService service = new ShardedValuationService(new ConsistentHashRing(), executor);
+        assertThrows(IllegalStateException.class, () -> service.calculateValuation(List.of("E1"), "USD"));
+    }
+
+    private static ConsistentHashRing ringOf(int nodes) {
+        ConsistentHashRing ring = new ConsistentHashRing();
+        IntStream.range(0, nodes).forEach(i -> ring.addNode(new FakeNode("N" + i)));
+        return ring;
+    }
+
+    private static List<String> accountIds(int count) {
+        return IntStream.range(0, count).mapToObj(i -> "E" + i).collect(Collectors.toList());
+    }
+
+    private static Map<String, String> owners(ConsistentHashRing ring, List<String> accountIds) {
+        return accountIds.stream().collect(Collectors.toMap(id -> id, id -> ring.getNode(id).getNodeId()));
+    }
+
+    /**
+     * Node that values every account at its own node index.
+     */
+    private static class FakeNode implements ValuationNode {
+
+        private final String nodeId;
+
+        FakeNode(String nodeId) {
+            this.nodeId = nodeId;
+        }
+
+        @Override
+        public String getNodeId() {
+            return nodeId;
+        }
+
+        @Override
+        public List<Account> calculateValuation(List<String> accountIds, String currencyCode) {
+            if (!"USD".equals(currencyCode)) {
+                throw new CurrencyNotFoundException("Currency code '" + currencyCode + "' not found in FX rates.");
+            }
+            double value = Double.parseDouble(nodeId.substring(1));
+            List<Account> result = new ArrayList<>();
+            // Reverse the shard so the coordinator has to restore request order.
+            for (int i = accountIds.size() - 1; i >= 0; i--) {
+                result.add(new Account(accountIds.get(i), value, value));
+            }
+            return result;
+        }
+    }
+}
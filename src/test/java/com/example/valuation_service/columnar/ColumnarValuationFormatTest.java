@@ -0,0 +1,232 @@
+package com.example.valuation_service.columnar;
+
+import com.example.valuation_service.model.Account;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ColumnarValuationFormatTest {
+
+    private static final Logger log = LoggerFactory.getLogger(ColumnarValuationFormatTest.class);
+
+    @Test
+    @DisplayName("Rows round-trip across several chunks in order")
+    void testRoundTripMultipleChunks() throws IOException {
+        List<Account> accounts = accounts(2500);
+
+        List<Account> result = read(write(accounts, 1000));
+
+        assertAccountsEqual(accounts, result);
+    }
+
+    @Test
+    @DisplayName("Values that are not whole cents round-trip exactly")
+    void testRoundTripRawDoubles() throws IOException {
+        List<Account> accounts = List.of(
+                new Account("E1", 1.005, 1.0 / 3),
+                new Account("E2", -0.0, Double.NaN),
+                new Account("E3", 1e300, -12.34));
+
+        List<Account> result = read(write(accounts, 10));
+
+        assertAccountsEqual(accounts, result);
+    }
+
+    @Test
+    @DisplayName("Repeated and non-ASCII account IDs round-trip")
+    void testRoundTripRepeatedAccountIds() throws IOException {
+        List<Account> accounts = List.of(
+                new Account("E1", 10.5, 20.25),
+                new Account("Konto-Ä", -1, 0),
+                new Account("E1", 99.99, 100));
+
+        List<Account> result = read(write(accounts, 10));
+
+        assertAccountsEqual(accounts, result);
+    }
+
+    @Test
+    @DisplayName("Empty result set is a valid stream")
+    void testRoundTripEmpty() throws IOException {
+        assertTrue(read(write(List.of(), 10)).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Stream without end-of-stream marker is reported as truncated")
+    void testTruncatedStream() throws IOException {
+        byte[] bytes = write(accounts(100), 40);
+
+        byte[] truncated = Arrays.copyOf(bytes, bytes.length - 8);
+        assertThrows(EOFException.class, () -> read(truncated));
+    }
+
+    @Test
+    @DisplayName("Corrupt chunk header declaring a huge payload is reported as truncated without allocating it")
+    void testHugeDeclaredPayload() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        DataOutputStream data = new DataOutputStream(out);
+        data.write(ColumnarValuationFormat.MAGIC);
+        data.write(ColumnarValuationFormat.VERSION);
+        data.writeInt(1);
+        data.writeInt(Integer.MAX_VALUE);
+        data.write(new byte[16]);
+
+        assertThrows(EOFException.class, () -> read(out.toByteArray()));
+    }
+
+    @Test
+    @DisplayName("Corrupt chunk header declaring more rows than its payload can hold is rejected")
+    void testRowCountExceedsPayload() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        DataOutputStream data = new DataOutputStream(out);
+        data.write(ColumnarValuationFormat.MAGIC);
+        data.write(ColumnarValuationFormat.VERSION);
+        data.writeInt(Integer.MAX_VALUE);
+        data.writeInt(16);
+        data.write(new byte[16]);
+
+        assertThrows(IOException.class, () -> read(out.toByteArray()));
+    }
+
+    @Test
+    @DisplayName("Corrupt chunk declaring more dictionary entries than its payload can hold is rejected")
+    void testDictionarySizeExceedsPayload() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        DataOutputStream data = new DataOutputStream(out);
+        data.write(ColumnarValuationFormat.MAGIC);
+        data.write(ColumnarValuationFormat.VERSION);
+        data.writeInt(1);
+        data.writeInt(8);
+        data.write(new byte[] {(byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, 0x07, 0, 0, 0});
+
+        assertThrows(IOException.class, () -> read(out.toByteArray()));
+    }
+
+    @Test
+    @DisplayName("Stream with wrong magic bytes is rejected")
+    void testInvalidMagic() {
+        assertThrows(IOException.class, () -> read("{\"accountId\":\"E1\"}".getBytes()));
+    }
+
+    @Test
+    @DisplayName("Rows cannot be written after finish")
+    void testWriteAfterFinish() throws IOException {
+        ColumnarValuationWriter writer = new ColumnarValuationWriter(new ByteArrayOutputStream());
+        writer.finish();
+        assertThrows(IllegalStateException.class, () -> writer.accept("E1", 1, 1));
+    }
+
+    @Test
+    @DisplayName("Columnar format is several times smaller than JSON")
+    void testSizeComparedToJson() throws IOException {
+        List<Account> accounts = accounts(100_000);
+
+        byte[] json = new ObjectMapper().writeValueAsBytes(accounts);
+        byte[] columnar = write(accounts, ColumnarValuationWriter.DEFAULT_CHUNK_SIZE);
+
+        assertTrue(columnar.length * 3 < json.length,
+                "Columnar " + columnar.length + " bytes vs JSON " + json.length + " bytes");
+    }
+
+    /**
+     * Compares serializing 1M rows to JSON, the way the Account list is serialized today, against streaming
+     * them into the columnar writer. The best of several runs is taken to keep JIT warm-up and GC pauses out
+     * of the comparison; the asserted ratios are deliberately below what is typically measured.
+     */
+    @Test
+    @EnabledIfSystemProperty(named = "benchmark", matches = "true")
+    @DisplayName("Serialization of 1M rows: columnar is several times smaller and faster than JSON")
+    void benchmarkSerialization() throws IOException {
+        List<Account> accounts = accounts(1_000_000);
+        String[] accountIds = accounts.stream().map(Account::getAccountId).toArray(String[]::new);
+        double[] collateralValues = accounts.stream().mapToDouble(Account::getCollateralValue).toArray();
+        double[] marketValues = accounts.stream().mapToDouble(Account::getMarketValue).toArray();
+        ObjectMapper objectMapper = new ObjectMapper();
+
+        long jsonNanos = Long.MAX_VALUE;
+        long columnarNanos = Long.MAX_VALUE;
+        int jsonBytes = 0;
+        int columnarBytes = 0;
+        for (int run = 0; run < 10; run++) {
+            long start = System.nanoTime();
+            // JSON needs the Account list the valuation would otherwise have built.
+            List<Account> list = new ArrayList<>(accountIds.length);
+            for (int i = 0; i < accountIds.length; i++) {
+                list.add(new Account(accountIds[i], collateralValues[i], marketValues[i]));
+            }
+            jsonBytes = objectMapper.writeValueAsBytes(list).length;
+            jsonNanos = Math.min(jsonNanos, System.nanoTime() - start);
+
+            start = System.nanoTime();
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            ColumnarValuationWriter writer = new ColumnarValuationWriter(out);
+            for (int i = 0; i < accountIds.length; i++) {
+                writer.accept(accountIds[i], collateralValues[i], marketValues[i]);
+            }
+            writer.finish();
+            columnarBytes = out.size();
+            columnarNanos = Math.min(columnarNanos, System.nanoTime() - start);
+        }
+
+        double sizeRatio = (double) jsonBytes / columnarBytes;
+        double speedRatio = (double) jsonNanos / columnarNanos;
+        log.info("JSON: {} bytes in {} ms; columnar: {} bytes in {} ms; {}x smaller, {}x faster",
+                jsonBytes, jsonNanos / 1_000_000, columnarBytes, columnarNanos / 1_000_000,
+                String.format("%.1f", sizeRatio), String.format("%.1f", speedRatio));
+        assertTrue(sizeRatio >= 3, "Columnar only " + sizeRatio + "x smaller than JSON");
+        assertTrue(speedRatio >= 2, "Columnar only " + speedRatio + "x faster than JSON");
+    }
+
+    private static byte[] write(List<Account> accounts, int chunkSize) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (ColumnarValuationWriter writer = new ColumnarValuationWriter(out, chunkSize)) {
+            accounts.forEach(account -> writer.accept(account.getAccountId(), account.getCollateralValue(),
+                    account.getMarketValue()));
+            writer.finish();
+        }
+        return out.toByteArray();
+    }
+
+    private static List<Account> read(byte[] bytes) throws IOException {
+        List<Account> accounts = new ArrayList<>();
+        try (ColumnarValuationReader reader = new ColumnarValuationReader(new ByteArrayInputStream(bytes))) {
+            reader.readAll((accountId, collateralValue, marketValue) ->
+                    accounts.add(new Account(accountId, collateralValue, marketValue)));
+        }
+        return accounts;
+    }
+
+    private static List<Account> accounts(int count) {
+        List<Account> accounts = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            double marketValue = (i * 7919L % 10_000_000) / 100.0;
+            accounts.add(new Account(String.format("ACC%08d", i), Math.round(marketValue * 90) / 100.0, marketValue));
+        }
+        return accounts;
+    }
+
+    private static void assertAccountsEqual(List<Account> expected, List<Account> actual) {
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.get(i).getAccountId(), actual.get(i).getAccountId());
+            assertEquals(Double.doubleToRawLongBits(expected.get(i).getCollateralValue()),
+                    Double.doubleToRawLongBits(actual.get(i).getCollateralValue()));
+            assertEquals(Double.doubleToRawLongBits(expected.get(i).getMarketValue()),
+                    Double.doubleToRawLongBits(actual.get(i).getMarketValue()));
+        }
+    }
+}
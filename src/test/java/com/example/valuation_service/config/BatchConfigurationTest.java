@@ -0,0 +1,74 @@
+package com.example.valuation_service.config;
+
+import com.example.valuation_service.batch.BatchValuationReport;
+import com.example.valuation_service.batch.EodBatchValuationJob;
+import com.example.valuation_service.model.*;
+import com.example.valuation_service.service.inmemory.InMemoryEligibilityService;
+import com.example.valuation_service.service.inmemory.InMemoryFXService;
+import com.example.valuation_service.service.inmemory.InMemoryPositionService;
+import com.example.valuation_service.service.inmemory.InMemoryPriceService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest(properties = {"valuation.batch.enabled=true", "valuation.batch.currency-code=GBP",
+        "valuation.batch.partition-size=2"})
+class BatchConfigurationTest {
+
+    @TempDir
+    static Path tempDir;
+
+    @Autowired
+    EodBatchValuationJob eodBatchValuationJob;
+
+    @Autowired
+    InMemoryPositionService positionService;
+
+    @Autowired
+    InMemoryEligibilityService eligibilityService;
+
+    @Autowired
+    InMemoryPriceService priceService;
+
+    @Autowired
+    InMemoryFXService fxService;
+
+    @DynamicPropertySource
+    static void batchFiles(DynamicPropertyRegistry registry) {
+        registry.add("valuation.batch.output-file", () -> tempDir.resolve("valuations.csv").toString());
+        registry.add("valuation.batch.work-directory", () -> tempDir.resolve("work").toString());
+    }
+
+    @Test
+    @DisplayName("Batch mode runs the job at startup and values the accounts held in memory")
+    void testBatchJobIsWired() throws Exception {
+        // The startup run found an empty book.
+        assertEquals(List.of("accountId,collateralValue,marketValue"), Files.readAllLines(tempDir.resolve("valuations.csv")));
+
+        fxService.putFXRate(new FXRate("USD", 1));
+        fxService.putFXRate(new FXRate("GBP", 1.25));
+        priceService.putPrice(new Price("S1", 10, "USD"));
+        for (String accountId : List.of("E1", "E2", "E3")) {
+            positionService.putPositions(accountId, List.of(Position.builder().assetId("S1").quantity(100).build()));
+        }
+        eligibilityService.addEligibility(new Eligibility(true, List.of("S1"), List.of("E1", "E2", "E3"), 0.5));
+
+        BatchValuationReport report = eodBatchValuationJob.run();
+
+        assertEquals(3, report.getTotalAccounts());
+        assertEquals(2, report.getTotalPartitions());
+        List<String> output = Files.readAllLines(tempDir.resolve("valuations.csv"));
+        assertEquals(4, output.size());
+        assertEquals("E1,400.00,800.00", output.get(1));
+    }
+}
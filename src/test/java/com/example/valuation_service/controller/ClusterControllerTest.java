@@ -0,0 +1,117 @@
+package com.example.valuation_service.controller;
+
+import com.example.valuation_service.cluster.ShardedValuationService;
+import com.example.valuation_service.columnar.ColumnarValuationFormat;
+import com.example.valuation_service.columnar.ColumnarValuationReader;
+import com.example.valuation_service.config.ClusterProperties;
+import com.example.valuation_service.model.Account;
+import com.example.valuation_service.service.AccountValuationConsumer;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
+
+import java.io.ByteArrayInputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(ClusterController.class)
+@TestPropertySource(properties = "valuation.cluster.enabled=true")
+class ClusterControllerTest {
+
+    private static final String ACCOUNT_IDS = "[\"E1\",\"E2\"]";
+
+    @Autowired
+    MockMvc mockMvc;
+
+    @MockBean
+    ShardedValuationService shardedValuationService;
+
+    @MockBean
+    ClusterProperties clusterProperties;
+
+    @Test
+    @DisplayName("Columnar request streams the merged valuation in the binary format")
+    void testColumnarValuation() throws Exception {
+        doAnswer(invocation -> {
+            AccountValuationConsumer consumer = invocation.getArgument(2);
+            consumer.accept("E1", 7015.68, 9345.2);
+            consumer.accept("E2", 22.54, 1730.05);
+            return null;
+        }).when(shardedValuationService).calculateValuation(anyList(), eq("USD"), any(AccountValuationConsumer.class));
+
+        MvcResult result = mockMvc.perform(post("/cluster/valuations").param("currency", "USD")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(ColumnarValuationFormat.MEDIA_TYPE)
+                        .content(ACCOUNT_IDS))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(ColumnarValuationFormat.MEDIA_TYPE))
+                .andReturn();
+
+        List<Account> accounts = new ArrayList<>();
+        try (ColumnarValuationReader reader = new ColumnarValuationReader(
+                new ByteArrayInputStream(result.getResponse().getContentAsByteArray()))) {
+            reader.readAll((accountId, collateralValue, marketValue) ->
+                    accounts.add(new Account(accountId, collateralValue, marketValue)));
+        }
+        assertEquals(2, accounts.size());
+        assertEquals("E1", accounts.get(0).getAccountId());
+        assertEquals(9345.2, accounts.get(0).getMarketValue());
+        assertEquals("E2", accounts.get(1).getAccountId());
+        assertEquals(22.54, accounts.get(1).getCollateralValue());
+    }
+
+    @Test
+    @DisplayName("Node rejecting the currency is returned as a 400, not a 500")
+    void testNodeClientErrorKeepsStatus() throws Exception {
+        when(shardedValuationService.calculateValuation(anyList(), eq("XXX")))
+                .thenThrow(HttpClientErrorException.create(HttpStatus.BAD_REQUEST, "Bad Request", null, null, null));
+
+        mockMvc.perform(post("/cluster/valuations").param("currency", "XXX")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(ACCOUNT_IDS))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @DisplayName("Node missing an FX rate is returned as a 503")
+    void testNodeServerErrorKeepsStatus() throws Exception {
+        when(shardedValuationService.calculateValuation(anyList(), eq("USD")))
+                .thenThrow(HttpServerErrorException.create(HttpStatus.SERVICE_UNAVAILABLE, "Service Unavailable",
+                        null, null, null));
+
+        mockMvc.perform(post("/cluster/valuations").param("currency", "USD")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(ACCOUNT_IDS))
+                .andExpect(status().isServiceUnavailable());
+    }
+
+    @Test
+    @DisplayName("Unreachable node is returned as a 503")
+    void testUnreachableNode() throws Exception {
+        when(shardedValuationService.calculateValuation(anyList(), eq("USD")))
+                .thenThrow(new ResourceAccessException("Connection refused"));
+
+        mockMvc.perform(post("/cluster/valuations").param("currency", "USD")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(ACCOUNT_IDS))
+                .andExpect(status().isServiceUnavailable());
+    }
+}
@@ -0,0 +1,117 @@
+package com.example.valuation_service.controller;
+
+import com.example.valuation_service.columnar.ColumnarValuationFormat;
+import com.example.valuation_service.columnar.ColumnarValuationReader;
+import com.example.valuation_service.exception.CurrencyNotFoundException;
+import com.example.valuation_service.model.Account;
+import com.example.valuation_service.service.AccountValuationConsumer;
+import com.example.valuation_service.service.ValuationService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.io.ByteArrayInputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(ValuationController.class)
+class ValuationControllerTest {
+
+    private static final String ACCOUNT_IDS = "[\"E1\",\"E2\"]";
+
+    @Autowired
+    MockMvc mockMvc;
+
+    @MockBean
+    ValuationService valuationService;
+
+    @Test
+    @DisplayName("Columnar request streams the valuation in the binary format")
+    void testColumnarValuation() throws Exception {
+        doAnswer(invocation -> {
+            AccountValuationConsumer consumer = invocation.getArgument(2);
+            consumer.accept("E1", 7015.68, 9345.2);
+            consumer.accept("E2", 22.54, 1730.05);
+            return null;
+        }).when(valuationService).calculateValuation(anyList(), eq("USD"), any(AccountValuationConsumer.class));
+
+        MvcResult result = mockMvc.perform(post("/valuations").param("currency", "USD")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(ColumnarValuationFormat.MEDIA_TYPE)
+                        .content(ACCOUNT_IDS))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(ColumnarValuationFormat.MEDIA_TYPE))
+                .andReturn();
+
+        List<Account> accounts = new ArrayList<>();
+        try (ColumnarValuationReader reader = new ColumnarValuationReader(
+                new ByteArrayInputStream(result.getResponse().getContentAsByteArray()))) {
+            reader.readAll((accountId, collateralValue, marketValue) ->
+                    accounts.add(new Account(accountId, collateralValue, marketValue)));
+        }
+        assertEquals(2, accounts.size());
+        assertEquals("E1", accounts.get(0).getAccountId());
+        assertEquals(7015.68, accounts.get(0).getCollateralValue());
+        assertEquals(9345.2, accounts.get(0).getMarketValue());
+        assertEquals("E2", accounts.get(1).getAccountId());
+        assertEquals(22.54, accounts.get(1).getCollateralValue());
+        assertEquals(1730.05, accounts.get(1).getMarketValue());
+    }
+
+    @Test
+    @DisplayName("Columnar request with an invalid currency returns an error status, not an empty 200")
+    void testColumnarValuationWithInvalidCurrency() throws Exception {
+        doThrow(new CurrencyNotFoundException("Currency code 'XXX' not found in FX rates or rate is zero."))
+                .when(valuationService).calculateValuation(anyList(), eq("XXX"), any(AccountValuationConsumer.class));
+
+        MvcResult result = mockMvc.perform(post("/valuations").param("currency", "XXX")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(ColumnarValuationFormat.MEDIA_TYPE)
+                        .content(ACCOUNT_IDS))
+                .andExpect(status().isBadRequest())
+                .andReturn();
+
+        assertEquals(0, result.getResponse().getContentAsByteArray().length);
+    }
+
+    @Test
+    @DisplayName("JSON request returns the Account list")
+    void testJsonValuation() throws Exception {
+        when(valuationService.calculateValuation(List.of("E1", "E2"), "USD"))
+                .thenReturn(List.of(new Account("E1", 7015.68, 9345.2)));
+
+        mockMvc.perform(post("/valuations").param("currency", "USD")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON)
+                        .content(ACCOUNT_IDS))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].accountId").value("E1"))
+                .andExpect(jsonPath("$[0].collateralValue").value(7015.68));
+    }
+
+    @Test
+    @DisplayName("JSON request with an invalid currency returns the same error status")
+    void testJsonValuationWithInvalidCurrency() throws Exception {
+        when(valuationService.calculateValuation(anyList(), eq("XXX")))
+                .thenThrow(new CurrencyNotFoundException("Currency code 'XXX' not found in FX rates or rate is zero."));
+
+        mockMvc.perform(post("/valuations").param("currency", "XXX")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON)
+                        .content(ACCOUNT_IDS))
+                .andExpect(status().isBadRequest());
+    }
+}
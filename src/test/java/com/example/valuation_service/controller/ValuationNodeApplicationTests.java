@@ -0,0 +1,70 @@
+package com.example.valuation_service.controller;
+
+import com.example.valuation_service.model.*;
+import com.example.valuation_service.service.inmemory.InMemoryEligibilityService;
+import com.example.valuation_service.service.inmemory.InMemoryFXService;
+import com.example.valuation_service.service.inmemory.InMemoryPositionService;
+import com.example.valuation_service.service.inmemory.InMemoryPriceService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class ValuationNodeApplicationTests {
+
+    @Autowired
+    TestRestTemplate restTemplate;
+
+    @Autowired
+    InMemoryPositionService positionService;
+
+    @Autowired
+    InMemoryEligibilityService eligibilityService;
+
+    @Autowired
+    InMemoryPriceService priceService;
+
+    @Autowired
+    InMemoryFXService fxService;
+
+    @BeforeEach
+    void setUp() {
+        fxService.putFXRate(new FXRate("USD", 1));
+        fxService.putFXRate(new FXRate("GBP", 1.28));
+        priceService.putPrice(new Price("S1", 50.5));
+        priceService.putPrice(new Price("S4", 15.5, "USD"));
+        positionService.putPositions("E1", List.of(
+                Position.builder().assetId("S1").quantity(100).build(),
+                Position.builder().assetId("S4").quantity(100).build()));
+        eligibilityService.addEligibility(new Eligibility(true, List.of("S1"), List.of("E1"), 0.9));
+    }
+
+    @Test
+    @DisplayName("Instance serves valuations over HTTP")
+    void testNodeServesValuations() {
+        Account[] result = restTemplate.postForObject("/valuations?currency=USD", List.of("E1"), Account[].class);
+
+        assertEquals(1, result.length);
+        assertEquals("E1", result[0].getAccountId());
+        assertEquals(5817.6, result[0].getCollateralValue());
+        assertEquals(8014, result[0].getMarketValue());
+    }
+
+    @Test
+    @DisplayName("Node asked for an account it does not hold answers 404 instead of leaving it out")
+    void testNodeRejectsAccountsItDoesNotHold() {
+        ResponseEntity<String> response = restTemplate.postForEntity("/valuations?currency=USD", List.of("E1", "E9"),
+                String.class);
+
+        assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
+    }
+}